@@ -0,0 +1,242 @@
+package com.idata_rfid;
+
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes GS1 EPC binary encodings (SGTIN-96, SSCC-96, GRAI-96) from the raw
+ * EPC hex returned by the reader, following the GS1 EPC Tag Data Standard.
+ *
+ * The 96 bits are unpacked into two longs and fields are extracted with shifts
+ * and masks, so decoding allocates only the resulting strings.
+ */
+final class EpcDecoder {
+    static final String SCHEME_SGTIN_96 = "sgtin-96";
+    static final String SCHEME_SSCC_96 = "sscc-96";
+    static final String SCHEME_GRAI_96 = "grai-96";
+
+    private static final int HEADER_SGTIN_96 = 0x30;
+    private static final int HEADER_SSCC_96 = 0x31;
+    private static final int HEADER_GRAI_96 = 0x33;
+
+    private static final int EPC_96_HEX_LENGTH = 24;
+
+    // Company prefix bits and digits per partition value (TDS tables 14-2, 14-5, 14-8)
+    private static final int[] PREFIX_BITS = {40, 37, 34, 30, 27, 24, 20};
+    private static final int[] PREFIX_DIGITS = {12, 11, 10, 9, 8, 7, 6};
+
+    /**
+     * Decoded GS1 identity of one EPC
+     */
+    static final class Gs1Epc {
+        final String scheme;
+        final int filter;
+        final String companyPrefix;
+        // GTIN-14, SSCC-18 or GRAI (without serial) depending on scheme
+        final String identifier;
+        @Nullable
+        final String serial;
+        // Channel representation, built once and shared by every event of this tag
+        private final Map<String, Object> map;
+
+        Gs1Epc(String scheme, int filter, String companyPrefix, String identifier, @Nullable String serial) {
+            this.scheme = scheme;
+            this.filter = filter;
+            this.companyPrefix = companyPrefix;
+            this.identifier = identifier;
+            this.serial = serial;
+            this.map = Collections.unmodifiableMap(buildMap());
+        }
+
+        @Nullable
+        String gtin() {
+            return SCHEME_SGTIN_96.equals(scheme) ? identifier : null;
+        }
+
+        Map<String, Object> toMap() {
+            return map;
+        }
+
+        private Map<String, Object> buildMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("scheme", scheme);
+            map.put("filter", filter);
+            map.put("companyPrefix", companyPrefix);
+            switch (scheme) {
+                case SCHEME_SGTIN_96:
+                    map.put("gtin", identifier);
+                    break;
+                case SCHEME_SSCC_96:
+                    map.put("sscc", identifier);
+                    break;
+                case SCHEME_GRAI_96:
+                    map.put("grai", identifier);
+                    break;
+                default:
+                    break;
+            }
+            if (serial != null) {
+                map.put("serial", serial);
+            }
+            return map;
+        }
+    }
+
+    private EpcDecoder() {
+    }
+
+    /**
+     * Decode an EPC hex string.
+     *
+     * @return the decoded identity, or null if the EPC is not a supported GS1 encoding
+     */
+    @Nullable
+    static Gs1Epc decode(@Nullable String epcHex) {
+        // Longer EPCs are not 96-bit schemes
+        if (epcHex == null || epcHex.length() != EPC_96_HEX_LENGTH || !isHex(epcHex)) {
+            return null;
+        }
+
+        // Bits 0-31 in hi, bits 32-95 in lo
+        long hi = parseHex(epcHex, 0, 8);
+        long lo = parseHex(epcHex, 8, EPC_96_HEX_LENGTH);
+
+        int header = (int) bits(hi, lo, 0, 8);
+        int filter = (int) bits(hi, lo, 8, 3);
+        int partition = (int) bits(hi, lo, 11, 3);
+        if (partition >= PREFIX_BITS.length) {
+            return null;
+        }
+
+        int prefixBits = PREFIX_BITS[partition];
+        int prefixDigits = PREFIX_DIGITS[partition];
+        long prefix = bits(hi, lo, 14, prefixBits);
+        if (prefix >= pow10(prefixDigits)) {
+            return null;
+        }
+        String companyPrefix = pad(prefix, prefixDigits);
+
+        switch (header) {
+            case HEADER_SGTIN_96: {
+                // Company prefix + item reference = 44 bits, 13 digits
+                int itemBits = 44 - prefixBits;
+                int itemDigits = 13 - prefixDigits;
+                long itemRef = bits(hi, lo, 14 + prefixBits, itemBits);
+                long serial = bits(hi, lo, 58, 38);
+                if (itemRef >= pow10(itemDigits)) {
+                    return null;
+                }
+                // Indicator digit leads the item reference
+                String item = pad(itemRef, itemDigits);
+                String body = item.charAt(0) + companyPrefix + item.substring(1);
+                return new Gs1Epc(SCHEME_SGTIN_96, filter, companyPrefix,
+                        body + checkDigit(body), Long.toString(serial));
+            }
+            case HEADER_SSCC_96: {
+                // Company prefix + serial reference = 58 bits, 17 digits; 24 bits unallocated
+                int refBits = 58 - prefixBits;
+                int refDigits = 17 - prefixDigits;
+                long serialRef = bits(hi, lo, 14 + prefixBits, refBits);
+                if (serialRef >= pow10(refDigits)) {
+                    return null;
+                }
+                // Extension digit leads the serial reference
+                String ref = pad(serialRef, refDigits);
+                String body = ref.charAt(0) + companyPrefix + ref.substring(1);
+                return new Gs1Epc(SCHEME_SSCC_96, filter, companyPrefix, body + checkDigit(body), null);
+            }
+            case HEADER_GRAI_96: {
+                // Company prefix + asset type = 44 bits, 12 digits
+                int assetBits = 44 - prefixBits;
+                int assetDigits = 12 - prefixDigits;
+                long assetType = bits(hi, lo, 14 + prefixBits, assetBits);
+                long serial = bits(hi, lo, 58, 38);
+                if (assetType >= pow10(assetDigits)) {
+                    return null;
+                }
+                String body = "0" + companyPrefix + pad(assetType, assetDigits);
+                return new Gs1Epc(SCHEME_GRAI_96, filter, companyPrefix,
+                        body + checkDigit(body), Long.toString(serial));
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Extract [length] bits starting at bit [start] (0 = most significant) of the 96-bit value
+     */
+    private static long bits(long hi, long lo, int start, int length) {
+        int end = start + length;
+        if (start >= 32) {
+            return (lo >>> (96 - end)) & mask(length);
+        }
+        if (end <= 32) {
+            return (hi >>> (32 - end)) & mask(length);
+        }
+        int loLength = end - 32;
+        long hiPart = hi & mask(32 - start);
+        return (hiPart << loLength) | (lo >>> (64 - loLength));
+    }
+
+    private static long mask(int length) {
+        return length >= 64 ? -1L : (1L << length) - 1;
+    }
+
+    private static long parseHex(String hex, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        }
+        return value;
+    }
+
+    private static boolean isHex(String hex) {
+        for (int i = 0; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long pow10(int digits) {
+        long value = 1;
+        for (int i = 0; i < digits; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static String pad(long value, int digits) {
+        if (digits == 0) {
+            return "";
+        }
+        String text = Long.toString(value);
+        if (text.length() >= digits) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(digits);
+        for (int i = text.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(text).toString();
+    }
+
+    /**
+     * GS1 mod-10 check digit: weights 3 and 1 alternating from the rightmost digit
+     */
+    private static int checkDigit(String digits) {
+        int sum = 0;
+        boolean three = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            sum += three ? d * 3 : d;
+            three = !three;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
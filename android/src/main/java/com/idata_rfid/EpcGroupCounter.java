@@ -0,0 +1,92 @@
+package com.idata_rfid;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live count of unique decoded tags per GTIN and per GS1 company prefix.
+ *
+ * The polling thread adds each tag once, when its EPC is first decoded; the
+ * main thread periodically drains only the groups that changed since the last
+ * drain, so listeners receive small incremental updates.
+ */
+final class EpcGroupCounter {
+    private final Map<String, Integer> byGtin = new HashMap<>();
+    private final Map<String, Integer> byCompanyPrefix = new HashMap<>();
+    private final Set<String> dirtyGtins = new HashSet<>();
+    private final Set<String> dirtyPrefixes = new HashSet<>();
+    private int decodedTags;
+    private boolean resendAll = true;
+
+    synchronized void add(EpcDecoder.Gs1Epc epc) {
+        decodedTags++;
+
+        String gtin = epc.gtin();
+        if (gtin != null) {
+            Integer count = byGtin.get(gtin);
+            byGtin.put(gtin, count == null ? 1 : count + 1);
+            dirtyGtins.add(gtin);
+        }
+
+        Integer count = byCompanyPrefix.get(epc.companyPrefix);
+        byCompanyPrefix.put(epc.companyPrefix, count == null ? 1 : count + 1);
+        dirtyPrefixes.add(epc.companyPrefix);
+    }
+
+    synchronized void clear() {
+        byGtin.clear();
+        byCompanyPrefix.clear();
+        dirtyGtins.clear();
+        dirtyPrefixes.clear();
+        decodedTags = 0;
+        resendAll = true;
+    }
+
+    /**
+     * Make the next drain send every group (e.g. for a new listener)
+     */
+    synchronized void markAllChanged() {
+        resendAll = true;
+    }
+
+    /**
+     * Collect groups changed since the last drain.
+     *
+     * @return event map with absolute counts of the changed groups, or null if nothing changed.
+     *         "reset" is true when the map holds every group and replaces any previous state.
+     */
+    @Nullable
+    synchronized Map<String, Object> drainChanges() {
+        if (!resendAll && dirtyGtins.isEmpty() && dirtyPrefixes.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("reset", resendAll);
+        event.put("decodedTags", decodedTags);
+        if (resendAll) {
+            event.put("byGtin", new HashMap<>(byGtin));
+            event.put("byCompanyPrefix", new HashMap<>(byCompanyPrefix));
+        } else {
+            event.put("byGtin", collect(byGtin, dirtyGtins));
+            event.put("byCompanyPrefix", collect(byCompanyPrefix, dirtyPrefixes));
+        }
+
+        resendAll = false;
+        dirtyGtins.clear();
+        dirtyPrefixes.clear();
+        return event;
+    }
+
+    private static Map<String, Integer> collect(Map<String, Integer> counts, Set<String> keys) {
+        Map<String, Integer> changed = new HashMap<>();
+        for (String key : keys) {
+            changed.put(key, counts.get(key));
+        }
+        return changed;
+    }
+}
@@ -18,9 +18,13 @@ import android.util.Log;
 import com.uhf.base.UHFManager;
 import com.uhf.base.UHFModuleType;
 
+import java.io.File;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * UHF RFID Plugin for Flutter
@@ -29,10 +33,17 @@ import java.util.Map;
 public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
     private static final String METHOD_CHANNEL = "com.idata_rfid/method";
     private static final String EVENT_CHANNEL = "com.idata_rfid/tags";
+    private static final String EXPORT_EVENT_CHANNEL = "com.idata_rfid/export_progress";
+    private static final String EPC_GROUPS_EVENT_CHANNEL = "com.idata_rfid/epc_groups";
+    private static final long EPC_GROUPS_INTERVAL_MS = 250;
     private static final String TAG = "IdataRfidPlugin";
+    private static final String JOURNAL_DIR = "rfid_journal";
+    private static final Pattern SESSION_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
 
     private MethodChannel methodChannel;
     private EventChannel eventChannel;
+    private EventChannel exportEventChannel;
+    private EventChannel epcGroupsEventChannel;
     
     private UHFManager uhfManager;
     private Context context;
@@ -44,9 +55,39 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
     private final Object uhfLock = new Object();
     
     private volatile EventChannel.EventSink eventSink;
+    private volatile EventChannel.EventSink exportSink;
+    private volatile EventChannel.EventSink epcGroupsSink;
     private UHFModuleType moduleType = UHFModuleType.SLR_MODULE;
     private TagPollingThread tagPollingThread;
 
+    // Only filled while tracking, a session or EPC decoding is enabled
+    private final TagInventory inventory = new TagInventory();
+    private volatile boolean inventoryTrackingEnabled;
+    private volatile InventoryJournal journal;
+    private String sessionId;
+    // Journal whose write failure was already sent on the tag stream; polling thread only
+    private InventoryJournal reportedJournalFailure;
+
+    private final EpcGroupCounter epcGroups = new EpcGroupCounter();
+    private volatile boolean epcDecodingEnabled;
+    private final Runnable epcGroupsFlush = new Runnable() {
+        @Override
+        public void run() {
+            EventChannel.EventSink sink = epcGroupsSink;
+            if (sink == null) {
+                return;
+            }
+            Map<String, Object> changes = epcGroups.drainChanges();
+            if (changes != null) {
+                sink.success(changes);
+            }
+            mainHandler.postDelayed(this, EPC_GROUPS_INTERVAL_MS);
+        }
+    };
+
+    private final LatencyTracer latencyTracer = new LatencyTracer();
+    private volatile boolean readTracingEnabled;
+
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
         context = binding.getApplicationContext();
@@ -72,6 +113,38 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
             }
         });
 
+        // Setup event channel for export progress
+        exportEventChannel = new EventChannel(binding.getBinaryMessenger(), EXPORT_EVENT_CHANNEL);
+        exportEventChannel.setStreamHandler(new EventChannel.StreamHandler() {
+            @Override
+            public void onListen(Object arguments, EventChannel.EventSink sink) {
+                exportSink = sink;
+            }
+
+            @Override
+            public void onCancel(Object arguments) {
+                exportSink = null;
+            }
+        });
+
+        // Setup event channel for GS1 group counts
+        epcGroupsEventChannel = new EventChannel(binding.getBinaryMessenger(), EPC_GROUPS_EVENT_CHANNEL);
+        epcGroupsEventChannel.setStreamHandler(new EventChannel.StreamHandler() {
+            @Override
+            public void onListen(Object arguments, EventChannel.EventSink sink) {
+                epcGroupsSink = sink;
+                epcGroups.markAllChanged();
+                mainHandler.removeCallbacks(epcGroupsFlush);
+                mainHandler.post(epcGroupsFlush);
+            }
+
+            @Override
+            public void onCancel(Object arguments) {
+                epcGroupsSink = null;
+                mainHandler.removeCallbacks(epcGroupsFlush);
+            }
+        });
+
         Log.d(TAG, "Plugin attached to engine");
     }
 
@@ -142,6 +215,42 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
                 case "setReadMode":
                     handleSetReadMode(call, result);
                     break;
+
+                case "resumeSession":
+                    handleResumeSession(call, result);
+                    break;
+
+                case "closeSession":
+                    handleCloseSession(call, result);
+                    break;
+
+                case "getInventory":
+                    handleGetInventory(result);
+                    break;
+
+                case "setInventoryTracking":
+                    handleSetInventoryTracking(call, result);
+                    break;
+
+                case "clearInventory":
+                    handleClearInventory(result);
+                    break;
+
+                case "exportInventory":
+                    handleExportInventory(call, result);
+                    break;
+
+                case "setEpcDecoding":
+                    handleSetEpcDecoding(call, result);
+                    break;
+
+                case "setReadTracing":
+                    handleSetReadTracing(call, result);
+                    break;
+
+                case "getReadLatencyStats":
+                    handleGetReadLatencyStats(result);
+                    break;
                     
                 default:
                     result.notImplemented();
@@ -273,6 +382,13 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
                         return;
                     }
 
+                    String journalError = journalFailureMessage();
+                    if (journalError != null) {
+                        final Result finalResult = result;
+                        mainHandler.post(() -> finalResult.error("JOURNAL_ERROR", journalError, null));
+                        return;
+                    }
+
                     Integer readModeArg = call.argument("readMode");
                     int readMode = readModeArg != null ? readModeArg : 0;
                     uhfManager.readTagModeSet(readMode, 0, 0, 0);
@@ -596,6 +712,318 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
         }).start();
     }
 
+    private void handleResumeSession(MethodCall call, Result result) {
+        new Thread(() -> {
+            try {
+                synchronized (uhfLock) {
+                    if (isScanning.get()) {
+                        final Result finalResult = result;
+                        mainHandler.post(() -> finalResult.error("STATE_ERROR", "Stop inventory before resuming a session", null));
+                        return;
+                    }
+
+                    String id = call.argument("sessionId");
+                    if (id == null || !SESSION_ID_PATTERN.matcher(id).matches()) {
+                        final Result finalResult = result;
+                        mainHandler.post(() -> finalResult.error("ARGUMENT_ERROR", "Invalid session id: " + id, null));
+                        return;
+                    }
+
+                    closeJournalInternal(false);
+                    inventory.clear();
+                    epcGroups.clear();
+
+                    File journalFile = getJournalFile(id);
+                    InventoryJournal.Recovery recovery = InventoryJournal.recover(journalFile, inventory);
+                    journal = InventoryJournal.open(journalFile, inventory, recovery != null ? recovery.endOffset : 0);
+                    sessionId = id;
+                    if (epcDecodingEnabled) {
+                        decodeInventoryInternal();
+                    }
+
+                    Map<String, Object> summary = new HashMap<>();
+                    summary.put("sessionId", id);
+                    summary.put("resumed", recovery != null);
+                    summary.put("uniqueTags", inventory.uniqueCount());
+                    summary.put("totalReads", inventory.totalReads());
+                    if (recovery != null) {
+                        summary.put("recoveredRecords", recovery.tagRecords + recovery.updateRecords);
+                        summary.put("lastCheckpoint", recovery.lastCheckpointTime);
+                        summary.put("truncatedTail", recovery.truncatedTail);
+                        summary.put("recoveryMs", recovery.elapsedMs);
+                    }
+
+                    Log.d(TAG, "Session " + id + " opened with " + inventory.uniqueCount() + " tags");
+                    final Result finalResult = result;
+                    mainHandler.post(() -> finalResult.success(summary));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Resume session error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("JOURNAL_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleCloseSession(MethodCall call, Result result) {
+        new Thread(() -> {
+            try {
+                synchronized (uhfLock) {
+                    Boolean discardArg = call.argument("discard");
+                    boolean closed = closeJournalInternal(discardArg != null && discardArg);
+                    inventory.clear();
+                    epcGroups.clear();
+                    final Result finalResult = result;
+                    mainHandler.post(() -> finalResult.success(closed));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Close session error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("JOURNAL_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleGetInventory(Result result) {
+        new Thread(() -> {
+            try {
+                List<Map<String, Object>> tags = new ArrayList<>(inventory.uniqueCount());
+                for (TagInventory.TagRecord record : inventory.records()) {
+                    tags.add(record.toMap());
+                }
+                final Result finalResult = result;
+                mainHandler.post(() -> finalResult.success(tags));
+            } catch (Exception e) {
+                Log.e(TAG, "Get inventory error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("INVENTORY_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleSetInventoryTracking(MethodCall call, Result result) {
+        Boolean enabledArg = call.argument("enabled");
+        inventoryTrackingEnabled = enabledArg != null && enabledArg;
+        Log.d(TAG, "Inventory tracking " + (inventoryTrackingEnabled ? "enabled" : "disabled"));
+        result.success(true);
+    }
+
+    private void handleClearInventory(Result result) {
+        new Thread(() -> {
+            try {
+                synchronized (uhfLock) {
+                    if (journal != null) {
+                        final Result finalResult = result;
+                        mainHandler.post(() -> finalResult.error("STATE_ERROR", "Close the journal session to clear its inventory", null));
+                        return;
+                    }
+
+                    inventory.clear();
+                    epcGroups.clear();
+                    final Result finalResult = result;
+                    mainHandler.post(() -> finalResult.success(true));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Clear inventory error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("INVENTORY_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleExportInventory(MethodCall call, Result result) {
+        new Thread(() -> {
+            try {
+                String path = call.argument("path");
+                if (path == null || path.isEmpty()) {
+                    final Result finalResult = result;
+                    mainHandler.post(() -> finalResult.error("ARGUMENT_ERROR", "Export path is required", null));
+                    return;
+                }
+
+                String format = call.argument("format");
+                List<String> fields = call.argument("fields");
+                Boolean gzipArg = call.argument("gzip");
+
+                InventoryExporter exporter;
+                try {
+                    exporter = new InventoryExporter(format != null ? format : InventoryExporter.FORMAT_CSV,
+                            fields, gzipArg != null && gzipArg);
+                } catch (IllegalArgumentException e) {
+                    final Result finalResult = result;
+                    final String errorMsg = e.getMessage();
+                    mainHandler.post(() -> finalResult.error("ARGUMENT_ERROR", errorMsg, null));
+                    return;
+                }
+
+                File target = new File(path);
+                if (!target.isAbsolute()) {
+                    target = new File(context.getFilesDir(), path);
+                }
+                final String targetPath = target.getAbsolutePath();
+
+                long start = System.currentTimeMillis();
+                int exported = exporter.export(inventory, target, (done, total) -> {
+                    Map<String, Object> progress = new HashMap<>();
+                    progress.put("path", targetPath);
+                    progress.put("exported", done);
+                    progress.put("total", total);
+                    mainHandler.post(() -> {
+                        EventChannel.EventSink sink = exportSink;
+                        if (sink != null) {
+                            sink.success(progress);
+                        }
+                    });
+                });
+
+                Map<String, Object> summary = new HashMap<>();
+                summary.put("path", targetPath);
+                summary.put("records", exported);
+                summary.put("bytes", target.length());
+                summary.put("elapsedMs", System.currentTimeMillis() - start);
+
+                Log.d(TAG, "Exported " + exported + " tags to " + targetPath);
+                final Result finalResult = result;
+                mainHandler.post(() -> finalResult.success(summary));
+            } catch (Exception e) {
+                Log.e(TAG, "Export inventory error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("EXPORT_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleSetEpcDecoding(MethodCall call, Result result) {
+        new Thread(() -> {
+            try {
+                synchronized (uhfLock) {
+                    Boolean enabledArg = call.argument("enabled");
+                    boolean enabled = enabledArg != null && enabledArg;
+
+                    epcGroups.clear();
+                    if (enabled) {
+                        // Count tags already in the inventory before live reads resume
+                        decodeInventoryInternal();
+                    }
+                    epcDecodingEnabled = enabled;
+
+                    Log.d(TAG, "EPC decoding " + (enabled ? "enabled" : "disabled"));
+                    final Result finalResult = result;
+                    mainHandler.post(() -> finalResult.success(true));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Set EPC decoding error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("DECODE_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    private void handleSetReadTracing(MethodCall call, Result result) {
+        Boolean enabledArg = call.argument("enabled");
+        boolean enabled = enabledArg != null && enabledArg;
+        if (enabled && !readTracingEnabled) {
+            // Start a fresh measurement window against a fresh clock anchor
+            latencyTracer.clear();
+        }
+        readTracingEnabled = enabled;
+        Log.d(TAG, "Read tracing " + (enabled ? "enabled" : "disabled"));
+        result.success(true);
+    }
+
+    private void handleGetReadLatencyStats(Result result) {
+        new Thread(() -> {
+            try {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("enabled", readTracingEnabled);
+                stats.put("stages", latencyTracer.snapshot());
+                final Result finalResult = result;
+                mainHandler.post(() -> finalResult.success(stats));
+            } catch (Exception e) {
+                Log.e(TAG, "Get read latency stats error", e);
+                final Result finalResult = result;
+                final String errorMsg = e.getMessage();
+                mainHandler.post(() -> finalResult.error("DIAGNOSTICS_ERROR", errorMsg, null));
+            }
+        }).start();
+    }
+
+    /**
+     * Decode every inventory record and feed the group counter. Must be called while holding uhfLock.
+     */
+    private void decodeInventoryInternal() {
+        for (TagInventory.TagRecord record : inventory.records()) {
+            EpcDecoder.Gs1Epc decoded = decodeRecord(record);
+            if (decoded != null) {
+                epcGroups.add(decoded);
+            }
+        }
+    }
+
+    /**
+     * Return the cached GS1 decode of a record, decoding it on first use
+     */
+    @Nullable
+    private static EpcDecoder.Gs1Epc decodeRecord(TagInventory.TagRecord record) {
+        if (!record.gs1Decoded) {
+            record.gs1 = EpcDecoder.decode(record.epc);
+            record.gs1Decoded = true;
+        }
+        return record.gs1;
+    }
+
+    /**
+     * Close the active journal, if any. Must be called while holding uhfLock.
+     *
+     * @return true if a session was open
+     */
+    private boolean closeJournalInternal(boolean discard) throws java.io.IOException {
+        InventoryJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+
+        journal = null;
+        try {
+            current.close();
+        } finally {
+            if (discard && !current.getFile().delete()) {
+                Log.w(TAG, "Could not delete journal " + current.getFile().getName());
+            }
+            Log.d(TAG, "Session " + sessionId + " closed");
+            sessionId = null;
+        }
+        return true;
+    }
+
+    /**
+     * Describe the write failure of the open session's journal, or null if it is healthy
+     */
+    @Nullable
+    private String journalFailureMessage() {
+        InventoryJournal current = journal;
+        java.io.IOException failure = current != null ? current.getFailure() : null;
+        if (failure == null) {
+            return null;
+        }
+        return "Journal of session " + sessionId + " failed: " + failure.getMessage()
+                + "; close the session to keep the inventory in memory only";
+    }
+
+    private File getJournalFile(String id) {
+        File dir = new File(context.getFilesDir(), JOURNAL_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create journal directory " + dir);
+        }
+        return new File(dir, id + InventoryJournal.FILE_SUFFIX);
+    }
+
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         Log.d(TAG, "Plugin detaching from engine");
@@ -608,6 +1036,11 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
                 }
             }
 
+            // Flush the journal so the session can be resumed later
+            synchronized (uhfLock) {
+                closeJournalInternal(false);
+            }
+
             // Power off and cleanup
             if (isPoweredOn.get()) {
                 synchronized (uhfLock) {
@@ -623,7 +1056,12 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
             // Cleanup channels
             methodChannel.setMethodCallHandler(null);
             eventChannel.setStreamHandler(null);
+            exportEventChannel.setStreamHandler(null);
+            epcGroupsEventChannel.setStreamHandler(null);
+            mainHandler.removeCallbacks(epcGroupsFlush);
             eventSink = null;
+            exportSink = null;
+            epcGroupsSink = null;
             
         } catch (Exception e) {
             Log.e(TAG, "Error during detach", e);
@@ -636,6 +1074,12 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
     private class TagPollingThread extends Thread {
         private static final int POLL_INTERVAL_MS = 50;
         private static final int RSSI_TIMEOUT_MS = 5000;
+        // Upper bound per lock hold so config commands are not starved during bursts
+        private static final int MAX_TAGS_PER_POLL = 256;
+
+        TagPollingThread() {
+            super("TagPollingThread");
+        }
 
         @Override
         public void run() {
@@ -644,23 +1088,10 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
             while (isScanning.get() && !Thread.currentThread().isInterrupted()) {
                 try {
                     synchronized (uhfLock) {
-                        if (uhfManager == null || eventSink == null) {
-                            continue;
-                        }
-
-                        String[] tagData = uhfManager.readTagFromBuffer();
-                        
-                        if (tagData != null && tagData.length >= 2) {
-                            Map<String, Object> tag = parseTagData(tagData);
-                            if (tag != null && eventSink != null) {
-                                mainHandler.post(() -> {
-                                    if (eventSink != null) {
-                                        eventSink.success(tag);
-                                    }
-                                });
-                                lastRssiTime = System.currentTimeMillis();
-                            }
+                        if (uhfManager != null && drainBuffer() > 0) {
+                            lastRssiTime = System.currentTimeMillis();
                         }
+                        reportJournalFailure();
                     }
 
                     Thread.sleep(POLL_INTERVAL_MS);
@@ -676,6 +1107,120 @@ public class IdataRfidPlugin implements FlutterPlugin, MethodCallHandler {
             Log.d(TAG, "Tag polling thread stopped");
         }
 
+        /**
+         * Send a journal write failure on the tag stream once, so Dart learns about
+         * it while the count is still running. Must be called while holding uhfLock.
+         */
+        private void reportJournalFailure() {
+            InventoryJournal current = journal;
+            if (current == null || current == reportedJournalFailure) {
+                return;
+            }
+            String message = journalFailureMessage();
+            if (message == null) {
+                return;
+            }
+            reportedJournalFailure = current;
+            Log.e(TAG, message);
+            mainHandler.post(() -> {
+                EventChannel.EventSink sink = eventSink;
+                if (sink != null) {
+                    sink.error("JOURNAL_ERROR", message, null);
+                }
+            });
+        }
+
+        /**
+         * Read tags until the reader buffer is empty (or the per-poll cap is hit).
+         * Must be called while holding uhfLock.
+         *
+         * @return number of tags read
+         */
+        private int drainBuffer() {
+            int count = 0;
+
+            while (count < MAX_TAGS_PER_POLL) {
+                LatencyTracer.ReadTrace trace = readTracingEnabled ? latencyTracer.begin() : null;
+
+                // Keep draining the reader while no listener is attached so a
+                // tracked native inventory (and journal) stays complete
+                String[] tagData = uhfManager.readTagFromBuffer();
+                if (tagData == null) {
+                    break;
+                }
+                count++;
+
+                if (tagData.length < 2) {
+                    continue;
+                }
+                if (trace != null) {
+                    trace.read();
+                }
+                Map<String, Object> tag = parseTagData(tagData);
+                if (tag == null) {
+                    continue;
+                }
+                if (trace != null) {
+                    trace.parsed();
+                }
+                recordTag(tag);
+                if (eventSink != null) {
+                    if (trace != null) {
+                        trace.enqueued(tag);
+                    }
+                    mainHandler.post(() -> {
+                        EventChannel.EventSink sink = eventSink;
+                        if (sink != null) {
+                            if (trace != null) {
+                                trace.posted();
+                            }
+                            sink.success(tag);
+                            if (trace != null) {
+                                trace.delivered();
+                            }
+                        }
+                    });
+                }
+            }
+
+            return count;
+        }
+
+        private void recordTag(Map<String, Object> tag) {
+            InventoryJournal currentJournal = journal;
+            if (!inventoryTrackingEnabled && currentJournal == null && !epcDecodingEnabled) {
+                // Clients that only listen to tagStream do not retain every EPC natively
+                return;
+            }
+
+            String epc = (String) tag.get("epc");
+            TagInventory.TagRecord created = inventory.record(
+                    epc,
+                    (String) tag.get("tid"),
+                    (Integer) tag.get("rssi"),
+                    (Long) tag.get("timestamp"));
+
+            // Only first sightings are queued; repeat reads reach the journal via checkpoints
+            if (created != null && currentJournal != null) {
+                currentJournal.append(created);
+            }
+
+            if (epcDecodingEnabled) {
+                TagInventory.TagRecord record = created != null ? created : inventory.get(epc);
+                if (record == null) {
+                    return;
+                }
+                boolean firstDecode = !record.gs1Decoded;
+                EpcDecoder.Gs1Epc decoded = decodeRecord(record);
+                if (decoded != null) {
+                    if (firstDecode) {
+                        epcGroups.add(decoded);
+                    }
+                    tag.put("gs1", decoded.toMap());
+                }
+            }
+        }
+
         @Nullable
         private Map<String, Object> parseTagData(String[] tagData) {
             try {
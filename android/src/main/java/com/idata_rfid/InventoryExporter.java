@@ -0,0 +1,325 @@
+package com.idata_rfid;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a {@link TagInventory} to a CSV or JSON file.
+ *
+ * Records are encoded straight into one reusable byte buffer that is flushed
+ * to a file channel (optionally through gzip) whenever it fills up, so memory
+ * use does not depend on the inventory size. Output goes to a temporary file
+ * that is forced to disk and renamed into place once complete, and deleted if
+ * the export fails.
+ */
+final class InventoryExporter {
+    static final String FORMAT_CSV = "csv";
+    static final String FORMAT_JSON = "json";
+
+    static final String FIELD_EPC = "epc";
+    static final String FIELD_TID = "tid";
+    static final String FIELD_RSSI = "rssi";
+    static final String FIELD_READ_COUNT = "readCount";
+    static final String FIELD_FIRST_SEEN = "firstSeen";
+    static final String FIELD_LAST_SEEN = "lastSeen";
+
+    private static final String[] ALL_FIELDS = {
+            FIELD_EPC, FIELD_TID, FIELD_RSSI, FIELD_READ_COUNT, FIELD_FIRST_SEEN, FIELD_LAST_SEEN
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Largest single value we encode before checking for room again
+    private static final int MAX_VALUE_SIZE = 2 * 1024;
+    private static final int PROGRESS_INTERVAL = 5000;
+
+    /**
+     * Receives progress updates on the exporting thread
+     */
+    interface ProgressListener {
+        void onProgress(int exported, int total);
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+
+    private final boolean json;
+    private final boolean gzip;
+    private final String[] fields;
+
+    private FileChannel channel;
+    private GZIPOutputStream gzipStream;
+
+    InventoryExporter(String format, @Nullable List<String> fields, boolean gzip) {
+        if (FORMAT_JSON.equals(format)) {
+            this.json = true;
+        } else if (FORMAT_CSV.equals(format)) {
+            this.json = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+
+        if (fields == null || fields.isEmpty()) {
+            this.fields = ALL_FIELDS;
+        } else {
+            for (String field : fields) {
+                if (!isKnownField(field)) {
+                    throw new IllegalArgumentException("Unknown export field: " + field);
+                }
+            }
+            this.fields = fields.toArray(new String[0]);
+        }
+        this.gzip = gzip;
+    }
+
+    /**
+     * Export the inventory to the given file.
+     *
+     * @return number of exported records
+     */
+    int export(TagInventory inventory, File target, @Nullable ProgressListener listener) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        File partial = new File(target.getPath() + ".part");
+        int total = inventory.uniqueCount();
+        int exported = 0;
+
+        boolean moved = false;
+        channel = new FileOutputStream(partial).getChannel();
+        try {
+            try {
+                if (gzip) {
+                    gzipStream = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                }
+                buffer.clear();
+
+                writeHeader();
+                for (TagInventory.TagRecord record : inventory.records()) {
+                    writeRecord(record, exported == 0);
+                    exported++;
+                    if (listener != null && exported % PROGRESS_INTERVAL == 0) {
+                        listener.onProgress(exported, Math.max(total, exported));
+                    }
+                }
+                writeFooter();
+
+                flush();
+                if (gzipStream != null) {
+                    // Write the gzip trailer before forcing; close() would also close the channel
+                    gzipStream.finish();
+                }
+                channel.force(false);
+            } catch (Throwable e) {
+                try {
+                    closeOutput();
+                } catch (IOException closeError) {
+                    // Keep the original failure
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+            closeOutput();
+
+            if (!partial.renameTo(target)) {
+                throw new IOException("Cannot move export into " + target);
+            }
+            moved = true;
+        } finally {
+            if (!moved) {
+                // Never leave a truncated file behind
+                partial.delete();
+            }
+        }
+
+        if (listener != null) {
+            listener.onProgress(exported, exported);
+        }
+        return exported;
+    }
+
+    private void closeOutput() throws IOException {
+        try {
+            if (gzipStream != null) {
+                gzipStream.close();
+            }
+        } finally {
+            gzipStream = null;
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void writeHeader() {
+        if (json) {
+            putAscii("[");
+            return;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            putAscii(fields[i]);
+        }
+        buffer.put((byte) '\n');
+    }
+
+    private void writeFooter() {
+        if (json) {
+            putAscii("\n]\n");
+        }
+    }
+
+    private void writeRecord(TagInventory.TagRecord record, boolean first) throws IOException {
+        ensureRoom();
+        if (json) {
+            putAscii(first ? "\n{" : ",\n{");
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            if (json) {
+                buffer.put((byte) '"');
+                putAscii(field);
+                putAscii("\":");
+            }
+
+            switch (field) {
+                case FIELD_EPC:
+                    putString(record.epc);
+                    break;
+                case FIELD_TID:
+                    putString(record.tid);
+                    break;
+                case FIELD_RSSI:
+                    putLong(record.rssi);
+                    break;
+                case FIELD_READ_COUNT:
+                    putLong(record.readCount);
+                    break;
+                case FIELD_FIRST_SEEN:
+                    putLong(record.firstSeen);
+                    break;
+                case FIELD_LAST_SEEN:
+                    putLong(record.lastSeen);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (json) {
+            buffer.put((byte) '}');
+        } else {
+            buffer.put((byte) '\n');
+        }
+    }
+
+    private void ensureRoom() throws IOException {
+        if (buffer.remaining() < MAX_VALUE_SIZE * fields.length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        if (gzipStream != null) {
+            gzipStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    private void putAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void putString(@Nullable String value) {
+        if (value == null) {
+            if (json) {
+                putAscii("null");
+            }
+            return;
+        }
+
+        int length = Math.min(value.length(), MAX_VALUE_SIZE / 2 - 2);
+        if (json) {
+            buffer.put((byte) '"');
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    buffer.put((byte) '\\');
+                }
+                buffer.put(c < 0x20 || c > 0x7E ? (byte) '?' : (byte) c);
+            }
+            buffer.put((byte) '"');
+            return;
+        }
+
+        // Tag data is hex; anything else is quoted per RFC 4180
+        boolean quote = false;
+        for (int i = 0; i < length && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            buffer.put((byte) '"');
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.put((byte) '"');
+            }
+            buffer.put(c > 0x7E ? (byte) '?' : (byte) c);
+        }
+        if (quote) {
+            buffer.put((byte) '"');
+        }
+    }
+
+    private void putLong(long value) {
+        if (value == 0) {
+            buffer.put((byte) '0');
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        // Negate into the negative range so Long.MIN_VALUE needs no special case
+        long remaining = value < 0 ? value : -value;
+        int count = 0;
+        while (remaining != 0) {
+            digits[count++] = (byte) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+    }
+
+    private static boolean isKnownField(String field) {
+        for (String known : ALL_FIELDS) {
+            if (known.equals(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
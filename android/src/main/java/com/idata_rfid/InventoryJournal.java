@@ -0,0 +1,591 @@
+package com.idata_rfid;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of a {@link TagInventory}.
+ *
+ * The polling thread only enqueues newly seen tags; a dedicated writer thread
+ * serializes them into the mapped region and periodically appends aggregate
+ * checkpoints (read count, RSSI, last seen of every tag changed since the previous
+ * checkpoint). Writes to a shared mapping land in the kernel page cache, so they
+ * survive process death without an fsync; the mapping is forced at each checkpoint
+ * to also cover power loss. Each mapped chunk is first reserved by writing zeros
+ * through the channel, so a full disk fails as an IOException on the writer
+ * thread instead of a SIGBUS on a sparse mapping. After a write failure the
+ * journal stops queuing tags and reports the error through {@link #getFailure()}.
+ *
+ * Checkpoints only ever append, so the file is compacted when a session is resumed
+ * and whenever it outgrows a multiple of its last snapshot: a fresh file holding one
+ * TAG and UPDATE record per tag is written next to it, forced and renamed over the
+ * old one. Recovery time therefore follows the tag count, not the session length.
+ *
+ * File layout: 8 byte header (magic, version) followed by records of
+ * [type:1][length:2][payload:length][crc32:4]. A zero type byte marks the end of
+ * the written area, a CRC mismatch marks a torn tail.
+ */
+final class InventoryJournal {
+    private static final String TAG = "IdataRfidJournal";
+
+    static final String FILE_SUFFIX = ".journal";
+    static final String COMPACT_SUFFIX = ".compact";
+
+    private static final int MAGIC = 0x49444A31; // "IDJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte TYPE_END = 0;
+    private static final byte TYPE_TAG = 1;
+    private static final byte TYPE_UPDATE = 2;
+    private static final byte TYPE_CHECKPOINT = 3;
+
+    private static final int RECORD_OVERHEAD = 1 + 2 + 4;
+    private static final int MAX_PAYLOAD = 1024;
+    private static final int MAP_CHUNK_SIZE = 1024 * 1024;
+    private static final int ZERO_FILL_SIZE = 64 * 1024;
+    private static final long CHECKPOINT_INTERVAL_MS = 2000;
+    private static final long ROLLOVER_MIN_BYTES = 8L * 1024 * 1024;
+    private static final int ROLLOVER_SNAPSHOT_FACTOR = 4;
+
+    /**
+     * Outcome of replaying a journal file
+     */
+    static final class Recovery {
+        int tagRecords;
+        int updateRecords;
+        int checkpoints;
+        long lastCheckpointTime;
+        long endOffset = HEADER_SIZE;
+        boolean truncatedTail;
+        long elapsedMs;
+
+        Recovery() {
+        }
+    }
+
+    // Queued by close() to wake the writer without interrupting it mid channel operation
+    private static final TagInventory.TagRecord CLOSE_MARKER = new TagInventory.TagRecord("", null, 0, 0);
+
+    private final File file;
+    private final TagInventory inventory;
+    private final LinkedBlockingQueue<TagInventory.TagRecord> pending = new LinkedBlockingQueue<>();
+    private final byte[] scratch = new byte[RECORD_OVERHEAD + MAX_PAYLOAD];
+    private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer zeros = ByteBuffer.allocate(ZERO_FILL_SIZE);
+
+    private final long checkpointIntervalMs;
+
+    // Swapped by compact(); owned by the writer thread once it is started
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long mappedBase;
+    private long rolloverThreshold = ROLLOVER_MIN_BYTES;
+
+    private volatile long recordsWritten;
+    private volatile int checkpoints;
+    private volatile int compactions;
+
+    private final WriterThread writerThread;
+    private volatile boolean closing;
+    private volatile IOException failure;
+
+    private InventoryJournal(File file, TagInventory inventory, long appendOffset,
+                             long checkpointIntervalMs) throws IOException {
+        this.file = file;
+        this.inventory = inventory;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+
+        // Left over from a compaction interrupted before its rename
+        File stale = new File(file.getPath() + COMPACT_SUFFIX);
+        if (stale.exists() && !stale.delete()) {
+            Log.w(TAG, "Could not delete " + stale.getName());
+        }
+
+        if (appendOffset > 0) {
+            try {
+                compact();
+            } catch (IOException e) {
+                Log.w(TAG, "Journal compaction failed, appending to " + file.getName(), e);
+                openFile(file, appendOffset);
+            }
+        } else {
+            openFile(file, 0);
+        }
+
+        writerThread = new WriterThread(file.getName());
+        writerThread.start();
+    }
+
+    /**
+     * Open a journal for appending. A resumed journal is compacted first.
+     *
+     * @param appendOffset end offset reported by {@link #recover}, or 0 to start a new file
+     */
+    static InventoryJournal open(File file, TagInventory inventory, long appendOffset) throws IOException {
+        return new InventoryJournal(file, inventory, appendOffset, CHECKPOINT_INTERVAL_MS);
+    }
+
+    static InventoryJournal open(File file, TagInventory inventory, long appendOffset,
+                                 long checkpointIntervalMs) throws IOException {
+        return new InventoryJournal(file, inventory, appendOffset, checkpointIntervalMs);
+    }
+
+    /**
+     * Queue a newly seen tag for the writer thread. Never blocks on disk.
+     * Dropped once the writer has failed, as nothing drains the queue any more.
+     */
+    void append(TagInventory.TagRecord record) {
+        if (!closing && failure == null) {
+            pending.offer(record);
+        }
+    }
+
+    /**
+     * Error that stopped the writer thread, if any
+     */
+    @Nullable
+    IOException getFailure() {
+        return failure;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    int getCheckpoints() {
+        return checkpoints;
+    }
+
+    int getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Flush pending tags, write a final checkpoint and release the file.
+     */
+    void close() throws IOException {
+        closing = true;
+        pending.offer(CLOSE_MARKER);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (failure == null) {
+                drainPending();
+                writeCheckpoint();
+                mapped.force();
+            }
+            long end = position();
+            mapped = null;
+            channel.truncate(end);
+        } finally {
+            raf.close();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Replay a journal file into the inventory in a single sequential scan.
+     *
+     * @return recovery details, or null if the file does not exist
+     */
+    @Nullable
+    static Recovery recover(File file, TagInventory inventory) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        Recovery recovery = new Recovery();
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "r");
+             FileChannel readChannel = in.getChannel()) {
+            long size = readChannel.size();
+            if (size < HEADER_SIZE) {
+                recovery.truncatedTail = size > 0;
+                recovery.endOffset = 0;
+                return recovery;
+            }
+
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an inventory journal: " + file.getName());
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+
+            CRC32 check = new CRC32();
+            byte[] record = new byte[RECORD_OVERHEAD + MAX_PAYLOAD];
+
+            while (buffer.remaining() >= RECORD_OVERHEAD) {
+                int offset = buffer.position();
+                byte type = buffer.get(offset);
+                if (type == TYPE_END) {
+                    break;
+                }
+
+                int length = buffer.getShort(offset + 1) & 0xFFFF;
+                if (length > MAX_PAYLOAD || buffer.remaining() < RECORD_OVERHEAD + length) {
+                    recovery.truncatedTail = true;
+                    break;
+                }
+
+                buffer.get(record, 0, 3 + length);
+                int storedCrc = buffer.getInt();
+                check.reset();
+                check.update(record, 0, 3 + length);
+                if ((int) check.getValue() != storedCrc) {
+                    recovery.truncatedTail = true;
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.wrap(record, 3, length);
+                applyRecord(type, payload, inventory, recovery);
+                recovery.endOffset = buffer.position();
+            }
+        }
+
+        // Everything replayed is already on disk
+        for (TagInventory.TagRecord tag : inventory.records()) {
+            tag.journaledCount = tag.readCount;
+        }
+
+        recovery.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Log.d(TAG, "Recovered " + inventory.uniqueCount() + " tags from " + file.getName()
+                + " in " + recovery.elapsedMs + "ms");
+        return recovery;
+    }
+
+    private static void applyRecord(byte type, ByteBuffer payload, TagInventory inventory, Recovery recovery) {
+        switch (type) {
+            case TYPE_TAG: {
+                long firstSeen = payload.getLong();
+                int rssi = payload.getShort();
+                String epc = readString(payload);
+                String tid = readString(payload);
+                inventory.restore(epc, tid.isEmpty() ? null : tid, rssi, firstSeen);
+                recovery.tagRecords++;
+                break;
+            }
+            case TYPE_UPDATE: {
+                long lastSeen = payload.getLong();
+                int readCount = payload.getInt();
+                int rssi = payload.getShort();
+                String epc = readString(payload);
+                TagInventory.TagRecord tag = inventory.get(epc);
+                if (tag == null) {
+                    tag = inventory.restore(epc, null, rssi, lastSeen);
+                }
+                inventory.restoreUpdate(tag, readCount, rssi, lastSeen);
+                recovery.updateRecords++;
+                break;
+            }
+            case TYPE_CHECKPOINT: {
+                recovery.lastCheckpointTime = payload.getLong();
+                recovery.checkpoints++;
+                break;
+            }
+            default:
+                // Unknown record types from newer writers are skipped
+                break;
+        }
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getShort() & 0xFFFF;
+        String value = new String(payload.array(), payload.arrayOffset() + payload.position(),
+                length, StandardCharsets.US_ASCII);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    /**
+     * Open (or create) the target file and map it for appending at the given offset
+     */
+    private void openFile(File target, long appendOffset) throws IOException {
+        RandomAccessFile nextRaf = new RandomAccessFile(target, "rw");
+        try {
+            raf = nextRaf;
+            channel = nextRaf.getChannel();
+            // Drop any torn tail so the freshly mapped area past the end reads as zeros
+            channel.truncate(Math.max(appendOffset, 0));
+            if (appendOffset <= 0) {
+                mapAt(0);
+                mapped.putInt(MAGIC);
+                mapped.putInt(VERSION);
+            } else {
+                mapAt(appendOffset);
+            }
+        } catch (IOException e) {
+            nextRaf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replace the journal with a snapshot of the inventory. On failure the previous
+     * file stays open for appending. Must be called before the writer thread starts
+     * or from it.
+     */
+    private void compact() throws IOException {
+        long start = System.nanoTime();
+        File next = new File(file.getPath() + COMPACT_SUFFIX);
+        RandomAccessFile previousRaf = raf;
+        FileChannel previousChannel = channel;
+        MappedByteBuffer previousMapped = mapped;
+        long previousBase = mappedBase;
+
+        try {
+            openFile(next, 0);
+            writeSnapshot();
+            mapped.force();
+            if (!next.renameTo(file)) {
+                throw new IOException("Cannot replace " + file.getName());
+            }
+        } catch (IOException e) {
+            if (raf != previousRaf) {
+                raf.close();
+            }
+            raf = previousRaf;
+            channel = previousChannel;
+            mapped = previousMapped;
+            mappedBase = previousBase;
+            if (next.exists() && !next.delete()) {
+                Log.w(TAG, "Could not delete " + next.getName());
+            }
+            throw e;
+        }
+
+        if (previousRaf != null) {
+            previousRaf.close();
+        }
+        rolloverThreshold = Math.max(ROLLOVER_MIN_BYTES, ROLLOVER_SNAPSHOT_FACTOR * position());
+        compactions++;
+        Log.d(TAG, "Compacted " + file.getName() + " to " + position() + " bytes in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
+    private long position() {
+        return mappedBase + mapped.position();
+    }
+
+    private void mapAt(long offset) throws IOException {
+        reserve(offset + MAP_CHUNK_SIZE);
+        mappedBase = offset;
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, offset, MAP_CHUNK_SIZE);
+    }
+
+    /**
+     * Allocate disk blocks up to the given size. Mapping past the end of the file
+     * would leave it sparse, and a store into an unallocated page on a full disk
+     * raises SIGBUS rather than an exception.
+     */
+    private void reserve(long size) throws IOException {
+        long position = channel.size();
+        while (position < size) {
+            zeros.clear();
+            zeros.limit((int) Math.min(ZERO_FILL_SIZE, size - position));
+            while (zeros.hasRemaining()) {
+                position += channel.write(zeros, position);
+            }
+        }
+    }
+
+    private void drainPending() throws IOException {
+        List<TagInventory.TagRecord> batch = new ArrayList<>();
+        pending.drainTo(batch);
+        for (TagInventory.TagRecord tag : batch) {
+            if (tag != CLOSE_MARKER) {
+                writeTag(tag);
+            }
+        }
+    }
+
+    private void writeTag(TagInventory.TagRecord tag) throws IOException {
+        writeTagRecord(tag);
+        // A TAG record replays as a single read; later reads go out as updates
+        tag.journaledCount = 1;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        for (TagInventory.TagRecord tag : inventory.records()) {
+            int readCount = tag.readCount;
+            if (readCount == tag.journaledCount || tag.journaledCount == 0) {
+                // Unchanged, or its TAG record is still queued
+                continue;
+            }
+            writeUpdateRecord(tag, readCount);
+            tag.journaledCount = readCount;
+        }
+        writeCheckpointRecord();
+        checkpoints++;
+    }
+
+    /**
+     * Write every journaled tag with its current counts. Tags still queued are
+     * written after the snapshot by the writer; journaledCount is left as is so
+     * nothing is lost if the snapshot is abandoned.
+     */
+    private void writeSnapshot() throws IOException {
+        for (TagInventory.TagRecord tag : inventory.records()) {
+            if (tag.journaledCount == 0) {
+                continue;
+            }
+            writeTagRecord(tag);
+            int readCount = tag.readCount;
+            if (readCount > 1) {
+                writeUpdateRecord(tag, readCount);
+            }
+        }
+        writeCheckpointRecord();
+    }
+
+    private void writeTagRecord(TagInventory.TagRecord tag) throws IOException {
+        beginRecord(TYPE_TAG);
+        scratchBuffer.putLong(tag.firstSeen);
+        scratchBuffer.putShort((short) tag.rssi);
+        putString(tag.epc);
+        putString(tag.tid);
+        endRecord();
+    }
+
+    private void writeUpdateRecord(TagInventory.TagRecord tag, int readCount) throws IOException {
+        beginRecord(TYPE_UPDATE);
+        scratchBuffer.putLong(tag.lastSeen);
+        scratchBuffer.putInt(readCount);
+        scratchBuffer.putShort((short) tag.rssi);
+        putString(tag.epc);
+        endRecord();
+    }
+
+    private void writeCheckpointRecord() throws IOException {
+        beginRecord(TYPE_CHECKPOINT);
+        scratchBuffer.putLong(System.currentTimeMillis());
+        scratchBuffer.putLong(inventory.totalReads());
+        scratchBuffer.putInt(inventory.uniqueCount());
+        endRecord();
+    }
+
+    private void beginRecord(byte type) {
+        scratchBuffer.clear();
+        scratchBuffer.put(type);
+        scratchBuffer.putShort((short) 0);
+    }
+
+    private void putString(@Nullable String value) {
+        if (value == null) {
+            scratchBuffer.putShort((short) 0);
+            return;
+        }
+        int length = Math.min(value.length(), (MAX_PAYLOAD - 32) / 2);
+        scratchBuffer.putShort((short) length);
+        for (int i = 0; i < length; i++) {
+            scratchBuffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void endRecord() throws IOException {
+        int length = scratchBuffer.position() - 3;
+        scratchBuffer.putShort(1, (short) length);
+
+        crc.reset();
+        crc.update(scratch, 0, 3 + length);
+        scratchBuffer.putInt((int) crc.getValue());
+
+        int size = scratchBuffer.position();
+        // Leave room for the end marker so a scan never runs past valid data
+        if (mapped.remaining() < size + 1) {
+            mapped.force();
+            mapAt(position());
+        }
+        mapped.put(scratch, 0, size);
+        recordsWritten++;
+    }
+
+    /**
+     * Background writer draining newly seen tags and emitting periodic checkpoints
+     */
+    private class WriterThread extends Thread {
+
+        WriterThread(String name) {
+            super("InventoryJournal-" + name);
+        }
+
+        @Override
+        public void run() {
+            long lastCheckpoint = System.currentTimeMillis();
+
+            while (!closing) {
+                try {
+                    TagInventory.TagRecord first = pending.poll(checkpointIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == CLOSE_MARKER) {
+                        break;
+                    }
+                    if (first != null) {
+                        writeTag(first);
+                        drainPending();
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastCheckpoint >= checkpointIntervalMs) {
+                        writeCheckpoint();
+                        mapped.force();
+                        lastCheckpoint = now;
+
+                        if (position() >= rolloverThreshold) {
+                            rollOver();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                } catch (IOException e) {
+                    Log.e(TAG, "Journal write error", e);
+                    failure = e;
+                    pending.clear();
+                    break;
+                }
+            }
+
+            Log.d(TAG, "Journal writer stopped");
+        }
+
+        private void rollOver() {
+            try {
+                compact();
+            } catch (IOException e) {
+                // Keep appending to the current file; retry once it has grown further
+                Log.w(TAG, "Journal compaction failed", e);
+                rolloverThreshold *= 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.idata_rfid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-stage latency tracing of the read path, from the reader buffer to the
+ * Flutter event sink.
+ *
+ * Stages are measured on the monotonic clock ({@link System#nanoTime()}) and
+ * kept in fixed-size rings holding the most recent samples, so memory is
+ * bounded during long counts. Timestamps sent to Dart are converted to epoch microseconds against
+ * a wall-clock anchor so they are comparable with Dart's DateTime.now(). The
+ * monotonic clock stops during deep sleep and the wall clock moves with NTP,
+ * so the anchor is retaken on {@link #clear()} and every few seconds while
+ * tracing; each trace keeps the anchor it started with.
+ */
+final class LatencyTracer {
+    static final String STAGE_BUFFER_READ = "bufferRead";
+    static final String STAGE_PARSE = "parse";
+    static final String STAGE_ENQUEUE = "enqueue";
+    static final String STAGE_MAIN_QUEUE = "mainQueue";
+    static final String STAGE_DELIVER = "deliver";
+    static final String STAGE_TOTAL = "total";
+
+    private static final int WINDOW_SIZE = 4096;
+    private static final long REANCHOR_INTERVAL_NS = 5_000_000_000L;
+
+    /**
+     * Timestamps of a single read as it moves through the pipeline
+     */
+    final class ReadTrace {
+        private final long pollStart;
+        private final long anchorMicros;
+        private long readAt;
+        private long parsedAt;
+        private long enqueuedAt;
+        private long postedAt;
+        private Map<String, Object> stamps;
+
+        private ReadTrace(long pollStart, long anchorMicros) {
+            this.pollStart = pollStart;
+            this.anchorMicros = anchorMicros;
+        }
+
+        private long toEpochMicros(long nanoTime) {
+            return anchorMicros + nanoTime / 1000;
+        }
+
+        /**
+         * Reader buffer returned data
+         */
+        void read() {
+            readAt = monotonicNanos.getAsLong();
+        }
+
+        void parsed() {
+            parsedAt = monotonicNanos.getAsLong();
+        }
+
+        /**
+         * Tag is about to be posted to the main thread; attaches the stamps so far
+         */
+        void enqueued(Map<String, Object> tag) {
+            enqueuedAt = monotonicNanos.getAsLong();
+
+            stamps = new HashMap<>();
+            stamps.put("readUs", toEpochMicros(readAt));
+            stamps.put("parseUs", toEpochMicros(parsedAt));
+            stamps.put("enqueueUs", toEpochMicros(enqueuedAt));
+            tag.put("trace", stamps);
+
+            bufferRead.add(readAt - pollStart);
+            parse.add(parsedAt - readAt);
+            enqueue.add(enqueuedAt - parsedAt);
+        }
+
+        /**
+         * Main thread picked up the tag, right before eventSink.success
+         */
+        void posted() {
+            postedAt = monotonicNanos.getAsLong();
+            if (stamps != null) {
+                stamps.put("postUs", toEpochMicros(postedAt));
+            }
+            mainQueue.add(postedAt - enqueuedAt);
+        }
+
+        /**
+         * eventSink.success returned
+         */
+        void delivered() {
+            long deliveredAt = monotonicNanos.getAsLong();
+            deliver.add(deliveredAt - postedAt);
+            total.add(deliveredAt - readAt);
+        }
+    }
+
+    /**
+     * Ring of the most recent samples of one stage, in nanoseconds
+     */
+    private static final class Window {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int next;
+        private long total;
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW_SIZE;
+            total++;
+        }
+
+        synchronized void clear() {
+            next = 0;
+            total = 0;
+        }
+
+        Map<String, Object> summarize() {
+            long[] sorted;
+            long count;
+            synchronized (this) {
+                count = total;
+                sorted = Arrays.copyOf(samples, (int) Math.min(total, WINDOW_SIZE));
+            }
+            Arrays.sort(sorted);
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("count", count);
+            summary.put("window", sorted.length);
+            summary.put("p50Us", percentileMicros(sorted, 50));
+            summary.put("p95Us", percentileMicros(sorted, 95));
+            summary.put("p99Us", percentileMicros(sorted, 99));
+            summary.put("maxUs", sorted.length > 0 ? sorted[sorted.length - 1] / 1000 : 0L);
+            return summary;
+        }
+
+        private static long percentileMicros(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            // Nearest-rank percentile
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1000;
+        }
+    }
+
+    private final Window bufferRead = new Window();
+    private final Window parse = new Window();
+    private final Window enqueue = new Window();
+    private final Window mainQueue = new Window();
+    private final Window deliver = new Window();
+    private final Window total = new Window();
+    private final LongSupplier wallClockMillis;
+    private final LongSupplier monotonicNanos;
+    private volatile long epochAnchorMicros;
+    private volatile long anchoredAt;
+
+    LatencyTracer() {
+        this(System::currentTimeMillis, System::nanoTime);
+    }
+
+    LatencyTracer(LongSupplier wallClockMillis, LongSupplier monotonicNanos) {
+        this.wallClockMillis = wallClockMillis;
+        this.monotonicNanos = monotonicNanos;
+        anchor();
+    }
+
+    /**
+     * Start tracing a poll, right before the reader buffer is queried
+     */
+    ReadTrace begin() {
+        long now = monotonicNanos.getAsLong();
+        if (now - anchoredAt >= REANCHOR_INTERVAL_NS) {
+            anchor();
+        }
+        return new ReadTrace(now, epochAnchorMicros);
+    }
+
+    /**
+     * Realign monotonic timestamps with the wall clock
+     */
+    private void anchor() {
+        long now = monotonicNanos.getAsLong();
+        epochAnchorMicros = wallClockMillis.getAsLong() * 1000 - now / 1000;
+        anchoredAt = now;
+    }
+
+    /**
+     * Drop all samples and re-anchor, starting a fresh measurement window
+     */
+    void clear() {
+        anchor();
+        bufferRead.clear();
+        parse.clear();
+        enqueue.clear();
+        mainQueue.clear();
+        deliver.clear();
+        total.clear();
+    }
+
+    /**
+     * Percentiles of every stage over the recent window, in microseconds
+     */
+    Map<String, Object> snapshot() {
+        Map<String, Object> stages = new HashMap<>();
+        stages.put(STAGE_BUFFER_READ, bufferRead.summarize());
+        stages.put(STAGE_PARSE, parse.summarize());
+        stages.put(STAGE_ENQUEUE, enqueue.summarize());
+        stages.put(STAGE_MAIN_QUEUE, mainQueue.summarize());
+        stages.put(STAGE_DELIVER, deliver.summarize());
+        stages.put(STAGE_TOTAL, total.summarize());
+        return stages;
+    }
+}
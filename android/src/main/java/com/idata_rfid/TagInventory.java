@@ -0,0 +1,139 @@
+package com.idata_rfid;
+
+import androidx.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicated, in-memory inventory of every tag read since the last clear.
+ *
+ * Records are updated by the polling thread only; other threads (journal writer,
+ * method call handlers) read them concurrently, so mutable fields are volatile.
+ */
+final class TagInventory {
+
+    /**
+     * Aggregate state for one EPC
+     */
+    static final class TagRecord {
+        final String epc;
+        final long firstSeen;
+        volatile String tid;
+        volatile int rssi;
+        volatile int readCount;
+        volatile long lastSeen;
+
+        // Read count already persisted; owned by the journal writer thread
+        int journaledCount;
+
+        // GS1 decode of the EPC, computed at most once per unique tag
+        @Nullable
+        volatile EpcDecoder.Gs1Epc gs1;
+        volatile boolean gs1Decoded;
+
+        TagRecord(String epc, @Nullable String tid, int rssi, long firstSeen) {
+            this.epc = epc;
+            this.tid = tid;
+            this.rssi = rssi;
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("epc", epc);
+            String currentTid = tid;
+            if (currentTid != null && !currentTid.isEmpty()) {
+                map.put("tid", currentTid);
+            }
+            map.put("rssi", rssi);
+            map.put("timestamp", lastSeen);
+            map.put("firstSeen", firstSeen);
+            map.put("readCount", readCount);
+            EpcDecoder.Gs1Epc decoded = gs1;
+            if (decoded != null) {
+                map.put("gs1", decoded.toMap());
+            }
+            return map;
+        }
+    }
+
+    private final ConcurrentHashMap<String, TagRecord> records = new ConcurrentHashMap<>();
+    private final AtomicLong totalReads = new AtomicLong();
+
+    /**
+     * Account one read of the given EPC.
+     *
+     * @return the newly created record on the first read of this EPC, null for repeat reads
+     */
+    @Nullable
+    TagRecord record(String epc, @Nullable String tid, int rssi, long timestamp) {
+        totalReads.incrementAndGet();
+
+        TagRecord existing = records.get(epc);
+        if (existing != null) {
+            existing.readCount++;
+            existing.rssi = rssi;
+            existing.lastSeen = timestamp;
+            if (tid != null && !tid.isEmpty()) {
+                existing.tid = tid;
+            }
+            return null;
+        }
+
+        TagRecord created = new TagRecord(epc, tid, rssi, timestamp);
+        created.readCount = 1;
+        records.put(epc, created);
+        return created;
+    }
+
+    /**
+     * Insert or overwrite a record with already aggregated values (journal replay)
+     */
+    TagRecord restore(String epc, @Nullable String tid, int rssi, long firstSeen) {
+        TagRecord record = records.get(epc);
+        if (record == null) {
+            record = new TagRecord(epc, tid, rssi, firstSeen);
+            record.readCount = 1;
+            records.put(epc, record);
+            totalReads.incrementAndGet();
+        }
+        return record;
+    }
+
+    /**
+     * Apply an aggregated update replayed from the journal
+     */
+    void restoreUpdate(TagRecord record, int readCount, int rssi, long lastSeen) {
+        totalReads.addAndGet(readCount - record.readCount);
+        record.readCount = readCount;
+        record.rssi = rssi;
+        record.lastSeen = lastSeen;
+    }
+
+    @Nullable
+    TagRecord get(String epc) {
+        return records.get(epc);
+    }
+
+    Collection<TagRecord> records() {
+        return records.values();
+    }
+
+    int uniqueCount() {
+        return records.size();
+    }
+
+    long totalReads() {
+        return totalReads.get();
+    }
+
+    void clear() {
+        records.clear();
+        totalReads.set(0);
+    }
+}
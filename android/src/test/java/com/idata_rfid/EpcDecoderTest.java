@@ -0,0 +1,78 @@
+package com.idata_rfid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+/*
+ * Expected values follow the worked examples of the GS1 EPC Tag Data Standard.
+ */
+public class EpcDecoderTest {
+
+    @Test
+    public void decodesSgtin96() {
+        EpcDecoder.Gs1Epc epc = EpcDecoder.decode("3074257BF7194E4000001A85");
+
+        assertNotNull(epc);
+        assertEquals(EpcDecoder.SCHEME_SGTIN_96, epc.scheme);
+        assertEquals(3, epc.filter);
+        assertEquals("0614141", epc.companyPrefix);
+        assertEquals("80614141123458", epc.gtin());
+        assertEquals("6789", epc.serial);
+    }
+
+    @Test
+    public void decodesSscc96() {
+        EpcDecoder.Gs1Epc epc = EpcDecoder.decode("3174257BF4499602D2000000");
+
+        assertNotNull(epc);
+        assertEquals(EpcDecoder.SCHEME_SSCC_96, epc.scheme);
+        assertEquals("0614141", epc.companyPrefix);
+        assertEquals("106141412345678908", epc.identifier);
+        assertNull(epc.gtin());
+        assertNull(epc.serial);
+    }
+
+    @Test
+    public void decodesGrai96() {
+        EpcDecoder.Gs1Epc epc = EpcDecoder.decode("3374257BF40C0E400000162E");
+
+        assertNotNull(epc);
+        assertEquals(EpcDecoder.SCHEME_GRAI_96, epc.scheme);
+        assertEquals("0614141", epc.companyPrefix);
+        assertEquals("00614141123452", epc.identifier);
+        assertEquals("5678", epc.serial);
+    }
+
+    @Test
+    public void rejectsUnsupportedEpcs() {
+        assertNull(EpcDecoder.decode(null));
+        assertNull(EpcDecoder.decode("E2801160600002"));
+        // Unknown header, invalid partition 7, non-hex digit
+        assertNull(EpcDecoder.decode("E20000000000000000000000"));
+        assertNull(EpcDecoder.decode("301C257BF7194E4000001A85"));
+        assertNull(EpcDecoder.decode("3074257BF7194E4000001AZ5"));
+    }
+
+    @Test
+    public void groupCounterDrainsOnlyChangedGroups() {
+        EpcGroupCounter counter = new EpcGroupCounter();
+        counter.add(EpcDecoder.decode("3074257BF7194E4000001A85"));
+        counter.add(EpcDecoder.decode("3074257BF7194E4000001A86"));
+
+        Map<String, Object> first = counter.drainChanges();
+        assertEquals(true, first.get("reset"));
+        assertEquals(2, ((Map<?, ?>) first.get("byGtin")).get("80614141123458"));
+        assertNull(counter.drainChanges());
+
+        counter.add(EpcDecoder.decode("3174257BF4499602D2000000"));
+        Map<String, Object> second = counter.drainChanges();
+        assertEquals(false, second.get("reset"));
+        assertEquals(0, ((Map<?, ?>) second.get("byGtin")).size());
+        assertEquals(3, ((Map<?, ?>) second.get("byCompanyPrefix")).get("0614141"));
+    }
+}
@@ -0,0 +1,637 @@
+package com.idata_rfid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.content.Context;
+import android.os.Handler;
+
+import com.uhf.base.UHFManager;
+import com.uhf.base.UHFModuleType;
+
+import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Soak / load test of the plugin's polling, parsing and delivery path against
+ * a simulated reader, runnable headless on a plain JVM.
+ *
+ * The real IdataRfidPlugin is attached with the vendor SDK, main-thread Handler
+ * and Flutter channels replaced by Mockito doubles; a single-thread executor
+ * plays the Android main thread. While bursty synthetic reads flow, random
+ * start/stop and config commands are issued. The run asserts bounded heap once
+ * every EPC has been seen, no leaked threads, no reads dropped by the reader
+ * FIFO and stable throughput (backlogs are tracked every few milliseconds, not
+ * just at sample points), and writes a JSON report to compare between releases.
+ *
+ * Skipped unless soak.enabled is set, so regular unit test runs stay fast.
+ * Defaults give a short smoke run:
+ *   ./gradlew testDebugUnitTest --tests '*SoakTest' -Dsoak.enabled=true
+ * For a real soak, e.g. 8 hours, add -Dsoak.durationSeconds=28800.
+ * Other knobs: soak.epcCount, soak.peakRate, soak.seed, soak.maxHeapGrowthMb,
+ * soak.reportDir (default build/reports/soak).
+ */
+public class IdataRfidPluginSoakTest {
+    private static final long CALL_TIMEOUT_SECONDS = 15;
+    private static final int SAMPLE_COUNT = 20;
+    private static final int THREAD_SLACK = 16;
+    private static final long MONITOR_INTERVAL_MS = 5;
+    // Backlog allowed on top of the first half's peak, about two polls at the per-poll cap
+    private static final int BACKLOG_SLACK = 512;
+    private static final double MIN_DRAIN_RATIO = 0.95;
+
+    private final long durationSeconds = Long.getLong("soak.durationSeconds", 20);
+    private final int epcCount = Integer.getInteger("soak.epcCount", 5000);
+    private final int peakRate = Integer.getInteger("soak.peakRate", 2000);
+    private final long seed = Long.getLong("soak.seed", 42);
+    private final long maxHeapGrowthMb = Long.getLong("soak.maxHeapGrowthMb", 32);
+    private final String reportDir = System.getProperty("soak.reportDir", "build/reports/soak");
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final MainThread mainThread = new MainThread();
+    private final Map<String, EventChannel.StreamHandler> streamHandlers = new ConcurrentHashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicInteger maxReaderBacklog = new AtomicInteger();
+    private final AtomicInteger maxMainBacklog = new AtomicInteger();
+    private volatile boolean monitoring;
+    private Thread monitor;
+
+    private SyntheticTagSource source;
+    private IdataRfidPlugin plugin;
+    private MockedStatic<UHFManager> uhfStatic;
+
+    /**
+     * Metrics captured at the end of each sampling interval
+     */
+    private static final class Sample {
+        long elapsedMs;
+        long produced;
+        long dropped;
+        long consumed;
+        long delivered;
+        double deliveredPerSecond;
+        double drainRatio = 1;
+        long heapUsedBytes;
+        int threads;
+        // Peaks since the previous sample, from the backlog monitor
+        int maxMainBacklog;
+        int maxReaderBacklog;
+        int uniqueTags;
+    }
+
+    /**
+     * Stand-in for the Android main looper
+     */
+    private static final class MainThread {
+        private final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, r -> new Thread(r, "soak-main"));
+        private final Map<Runnable, ScheduledFuture<?>> delayed = new ConcurrentHashMap<>();
+
+        boolean post(Runnable runnable) {
+            executor.execute(runnable);
+            return true;
+        }
+
+        boolean postDelayed(Runnable runnable, long delayMs) {
+            delayed.put(runnable, executor.schedule(() -> {
+                delayed.remove(runnable);
+                runnable.run();
+            }, delayMs, TimeUnit.MILLISECONDS));
+            return true;
+        }
+
+        void removeCallbacks(Runnable runnable) {
+            ScheduledFuture<?> future = delayed.remove(runnable);
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        int backlog() {
+            return executor.getQueue().size();
+        }
+
+        void shutdown() throws InterruptedException {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Blocking MethodChannel.Result
+     */
+    private static final class CallResult implements MethodChannel.Result {
+        private final CountDownLatch done = new CountDownLatch(1);
+        Object value;
+        String errorCode;
+        String errorMessage;
+
+        @Override
+        public void success(Object result) {
+            value = result;
+            done.countDown();
+        }
+
+        @Override
+        public void error(String code, String message, Object details) {
+            errorCode = code;
+            errorMessage = message;
+            done.countDown();
+        }
+
+        @Override
+        public void notImplemented() {
+            errorCode = "NOT_IMPLEMENTED";
+            done.countDown();
+        }
+    }
+
+    @Before
+    @SuppressWarnings("try") // construction mocks only need to be active, not referenced
+    public void setUp() {
+        assumeTrue("Soak test is opt-in: -Dsoak.enabled=true", Boolean.getBoolean("soak.enabled"));
+        source = new SyntheticTagSource(epcCount, peakRate, seed);
+
+        UHFManager reader = mock(UHFManager.class, withSettings().stubOnly());
+        when(reader.powerOn()).thenReturn(true);
+        when(reader.powerOff()).thenReturn(true);
+        when(reader.startInventoryTag()).thenAnswer(inv -> source.start());
+        when(reader.stopInventory()).thenAnswer(inv -> source.stop());
+        when(reader.readTagFromBuffer()).thenAnswer(inv -> source.readTagFromBuffer());
+        when(reader.readTagModeSet(anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(true);
+        when(reader.powerSet(anyInt())).thenReturn(true);
+        when(reader.powerGet()).thenReturn(30);
+        when(reader.sessionModeSet(anyInt())).thenReturn(true);
+        when(reader.frequencyModeSet(anyInt())).thenReturn(true);
+        when(reader.slrInventoryModeSet(anyInt())).thenReturn(true);
+        when(reader.inventoryModelSet(anyInt(), anyBoolean())).thenReturn(true);
+
+        // Static and construction mocks only apply on this thread, which is where
+        // the plugin looks up the SDK singleton and creates its Handler
+        uhfStatic = mockStatic(UHFManager.class, withSettings().stubOnly());
+        uhfStatic.when(() -> UHFManager.getUHFImplSigleInstance(any(UHFModuleType.class), any(Context.class)))
+                .thenReturn(reader);
+
+        Context context = mock(Context.class, withSettings().stubOnly());
+        when(context.getFilesDir()).thenReturn(temp.getRoot());
+        FlutterPlugin.FlutterPluginBinding binding =
+                mock(FlutterPlugin.FlutterPluginBinding.class, withSettings().stubOnly());
+        when(binding.getApplicationContext()).thenReturn(context);
+        when(binding.getBinaryMessenger()).thenReturn(mock(BinaryMessenger.class, withSettings().stubOnly()));
+
+        plugin = new IdataRfidPlugin();
+        try (MockedConstruction<Handler> handlers = mockConstruction(Handler.class,
+                withSettings().stubOnly(), (handler, ctx) -> {
+                    when(handler.post(any())).thenAnswer(inv -> mainThread.post(inv.getArgument(0)));
+                    when(handler.postDelayed(any(), anyLong()))
+                            .thenAnswer(inv -> mainThread.postDelayed(inv.getArgument(0), inv.getArgument(1)));
+                    doAnswer(inv -> {
+                        mainThread.removeCallbacks(inv.getArgument(0));
+                        return null;
+                    }).when(handler).removeCallbacks(any());
+                });
+             MockedConstruction<MethodChannel> methodChannels = mockConstruction(MethodChannel.class,
+                     withSettings().stubOnly());
+             MockedConstruction<EventChannel> eventChannels = mockConstruction(EventChannel.class,
+                     withSettings().stubOnly(), (channel, ctx) -> {
+                         String name = (String) ctx.arguments().get(1);
+                         doAnswer(inv -> {
+                             EventChannel.StreamHandler handler = inv.getArgument(0);
+                             if (handler != null) {
+                                 streamHandlers.put(name, handler);
+                             }
+                             return null;
+                         }).when(channel).setStreamHandler(any());
+                     })) {
+            plugin.onAttachedToEngine(binding);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stopMonitor();
+        if (plugin != null) {
+            plugin.onDetachedFromEngine(mock(FlutterPlugin.FlutterPluginBinding.class));
+        }
+        if (uhfStatic != null) {
+            uhfStatic.close();
+        }
+        if (source != null) {
+            source.close();
+        }
+        mainThread.shutdown();
+    }
+
+    @Test
+    public void soakPollingParsingAndDelivery() throws Exception {
+        assertOk(call("initialize", args("moduleType", "SLR_MODULE")));
+        assertOk(call("powerOn", null));
+        assertOk(call("resumeSession", args("sessionId", "soak")));
+        assertOk(call("setEpcDecoding", args("enabled", true)));
+        assertOk(call("setReadTracing", args("enabled", true)));
+
+        streamHandlers.get("com.idata_rfid/tags").onListen(null, new EventChannel.EventSink() {
+            @Override
+            public void success(Object event) {
+                delivered.incrementAndGet();
+            }
+
+            @Override
+            public void error(String code, String message, Object details) {
+            }
+
+            @Override
+            public void endOfStream() {
+            }
+        });
+
+        settle();
+        startMonitor();
+        int baselineThreads = Thread.activeCount();
+
+        assertOk(call("startInventory", args("readMode", 0)));
+
+        Random random = new Random(seed);
+        List<Sample> samples = new ArrayList<>();
+        Map<String, Integer> commandCounts = new HashMap<>();
+        long start = System.currentTimeMillis();
+        long sampleIntervalMs = Math.max(1000, durationSeconds * 1000 / SAMPLE_COUNT);
+        long nextSample = start + sampleIntervalMs;
+        long end = start + durationSeconds * 1000;
+        int maxThreads = 0;
+        Sample previous = null;
+
+        while (System.currentTimeMillis() < end) {
+            String command = randomCommand(random);
+            commandCounts.merge(command, 1, Integer::sum);
+            runCommand(command, random);
+
+            maxThreads = Math.max(maxThreads, Thread.activeCount());
+            Thread.sleep(50 + random.nextInt(250));
+
+            if (System.currentTimeMillis() >= nextSample) {
+                Sample sample = sample(start, previous, false);
+                samples.add(sample);
+                previous = sample;
+                nextSample += sampleIntervalMs;
+            }
+        }
+
+        assertOk(call("stopInventory", null));
+        stopMonitor();
+        Map<?, ?> latency = (Map<?, ?>) assertOk(call("getReadLatencyStats", null));
+        settle();
+        Sample last = sample(start, previous, true);
+
+        List<Thread> pollers = threadsNamed("TagPollingThread");
+        int finalThreads = Thread.activeCount();
+        writeReport(samples, last, latency, commandCounts, baselineThreads, maxThreads, finalThreads);
+
+        // Every read leaves the buffer and reaches the listener
+        assertEquals(source.produced() - source.dropped(), source.consumed() + source.buffered());
+        assertEquals(source.consumed(), last.delivered);
+        assertTrue("Inventory larger than EPC pool", last.uniqueTags <= epcCount);
+        assertTrue("Too few samples for a soak run", samples.size() >= 2);
+
+        // The reader FIFO never overflows at the configured peak rate
+        assertEquals("Reads dropped by the reader buffer", 0, last.dropped);
+
+        // Heap stays bounded once every EPC has been seen
+        Sample saturated = null;
+        for (Sample sample : samples) {
+            if (sample.uniqueTags == epcCount) {
+                saturated = sample;
+                break;
+            }
+        }
+        assertNotNull("EPC pool never saturated; raise soak.durationSeconds or lower soak.epcCount", saturated);
+        long heapGrowthMb = (last.heapUsedBytes - saturated.heapUsedBytes) / (1024 * 1024);
+        assertTrue("Heap grew by " + heapGrowthMb + " MB after " + saturated.elapsedMs + "ms",
+                heapGrowthMb <= maxHeapGrowthMb);
+
+        // No leaked polling or per-call worker threads
+        assertTrue("Leaked polling threads: " + pollers, pollers.isEmpty());
+        assertTrue("Thread count " + maxThreads + " vs baseline " + baselineThreads,
+                maxThreads <= baselineThreads + THREAD_SLACK);
+        assertTrue("Threads not released: " + finalThreads + " vs baseline " + baselineThreads,
+                finalThreads <= baselineThreads + 1);
+
+        // Throughput is as stable in the second half as in the first: the plugin drains
+        // what the reader produced, and backlog peaks do not grow
+        int middle = samples.size() / 2;
+        Sample half = samples.get(middle - 1);
+        Sample lastSample = samples.get(samples.size() - 1);
+        double firstRatio = drainRatio(null, half);
+        double secondRatio = drainRatio(half, lastSample);
+        assertTrue("First half drained " + firstRatio, firstRatio >= MIN_DRAIN_RATIO);
+        assertTrue("Second half drained " + secondRatio, secondRatio >= MIN_DRAIN_RATIO);
+
+        int firstReaderPeak = 0;
+        int firstMainPeak = 0;
+        for (Sample sample : samples.subList(0, middle)) {
+            firstReaderPeak = Math.max(firstReaderPeak, sample.maxReaderBacklog);
+            firstMainPeak = Math.max(firstMainPeak, sample.maxMainBacklog);
+        }
+        for (Sample sample : samples.subList(middle, samples.size())) {
+            assertTrue("Reader backlog peak " + sample.maxReaderBacklog + " at " + sample.elapsedMs
+                            + "ms vs " + firstReaderPeak + " in the first half",
+                    sample.maxReaderBacklog <= Math.max(2 * firstReaderPeak, BACKLOG_SLACK));
+            assertTrue("Main thread backlog peak " + sample.maxMainBacklog + " at " + sample.elapsedMs
+                            + "ms vs " + firstMainPeak + " in the first half",
+                    sample.maxMainBacklog <= Math.max(2 * firstMainPeak, BACKLOG_SLACK));
+        }
+    }
+
+    /**
+     * Share of the reads produced between two samples that left the reader buffer
+     */
+    private static double drainRatio(Sample from, Sample to) {
+        long produced = to.produced - (from != null ? from.produced : 0);
+        long consumed = to.consumed - (from != null ? from.consumed : 0);
+        return produced > 0 ? (double) consumed / produced : 1;
+    }
+
+    /**
+     * Track reader and main thread backlog peaks between samples
+     */
+    private void startMonitor() {
+        monitoring = true;
+        monitor = new Thread(() -> {
+            while (monitoring) {
+                int reader = source.buffered();
+                int main = mainThread.backlog();
+                maxReaderBacklog.accumulateAndGet(reader, Math::max);
+                maxMainBacklog.accumulateAndGet(main, Math::max);
+                try {
+                    Thread.sleep(MONITOR_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "soak-monitor");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+
+    private void stopMonitor() throws InterruptedException {
+        monitoring = false;
+        if (monitor != null) {
+            monitor.join(1000);
+            monitor = null;
+        }
+    }
+
+    private String randomCommand(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 10) {
+            return "restartInventory";
+        } else if (roll < 25) {
+            return "setPower";
+        } else if (roll < 35) {
+            return "setSessionMode";
+        } else if (roll < 45) {
+            return "setInventoryMode";
+        } else if (roll < 60) {
+            return "getPower";
+        } else if (roll < 62) {
+            return "getInventory";
+        } else if (roll < 63) {
+            return "exportInventory";
+        }
+        return "idle";
+    }
+
+    private void runCommand(String command, Random random) throws Exception {
+        switch (command) {
+            case "restartInventory":
+                assertOk(call("stopInventory", null));
+                Thread.sleep(random.nextInt(300));
+                assertOk(call("startInventory", args("readMode", 0)));
+                break;
+            case "setPower":
+                assertOk(call("setPower", args("power", 5 + random.nextInt(26))));
+                break;
+            case "setSessionMode":
+                assertOk(call("setSessionMode", args("sessionMode", random.nextInt(4))));
+                break;
+            case "setInventoryMode":
+                assertOk(call("setInventoryMode", args("mode", random.nextInt(9))));
+                break;
+            case "getPower":
+                assertEquals(30, assertOk(call("getPower", null)));
+                break;
+            case "getInventory":
+                assertNotNull(assertOk(call("getInventory", null)));
+                break;
+            case "exportInventory":
+                assertOk(call("exportInventory",
+                        args("path", new File(temp.getRoot(), "export.csv.gz").getPath(), "gzip", true)));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Sample sample(long start, Sample previous, boolean settled) {
+        Sample sample = new Sample();
+        sample.elapsedMs = System.currentTimeMillis() - start;
+        sample.produced = source.produced();
+        sample.dropped = source.dropped();
+        sample.consumed = source.consumed();
+        sample.delivered = delivered.get();
+        sample.heapUsedBytes = usedHeapAfterGc();
+        sample.threads = Thread.activeCount();
+        sample.maxMainBacklog = maxMainBacklog.getAndSet(0);
+        sample.maxReaderBacklog = maxReaderBacklog.getAndSet(0);
+
+        sample.uniqueTags = ((List<?>) assertOk(call("getInventory", null))).size();
+
+        if (previous != null && !settled) {
+            double seconds = (sample.elapsedMs - previous.elapsedMs) / 1000.0;
+            sample.deliveredPerSecond = (sample.delivered - previous.delivered) / seconds;
+        }
+        if (!settled) {
+            sample.drainRatio = drainRatio(previous, sample);
+        }
+        return sample;
+    }
+
+    private CallResult call(String method, Object arguments) {
+        CallResult result = new CallResult();
+        plugin.onMethodCall(new MethodCall(method, arguments), result);
+        try {
+            assertTrue(method + " timed out", result.done.await(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(method + " interrupted");
+        }
+        return result;
+    }
+
+    private static Object assertOk(CallResult result) {
+        assertNull(result.errorCode + ": " + result.errorMessage, result.errorCode);
+        return result.value;
+    }
+
+    private static Map<String, Object> args(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Wait for per-call worker threads and the main thread queue to drain
+     */
+    private void settle() throws InterruptedException {
+        for (int i = 0; i < 50 && mainThread.backlog() > 0; i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Thread> threadsNamed(String name) {
+        List<Thread> matches = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && name.equals(thread.getName())) {
+                matches.add(thread);
+            }
+        }
+        return matches;
+    }
+
+    private void writeReport(List<Sample> samples, Sample last, Map<?, ?> latency,
+                             Map<String, Integer> commandCounts, int baselineThreads,
+                             int maxThreads, int finalThreads) throws IOException {
+        File dir = new File(reportDir);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File report = new File(dir, "soak-report.json");
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"config\": {\"durationSeconds\": ").append(durationSeconds)
+                .append(", \"epcCount\": ").append(epcCount)
+                .append(", \"peakRate\": ").append(peakRate)
+                .append(", \"seed\": ").append(seed)
+                .append(", \"javaVersion\": \"").append(System.getProperty("java.version")).append("\"},\n");
+        json.append("  \"summary\": {\"produced\": ").append(last.produced)
+                .append(", \"dropped\": ").append(last.dropped)
+                .append(", \"delivered\": ").append(last.delivered)
+                .append(", \"uniqueTags\": ").append(last.uniqueTags)
+                .append(", \"avgDeliveredPerSecond\": ")
+                .append(String.format("%.1f", last.delivered * 1000.0 / Math.max(1, last.elapsedMs)))
+                .append(", \"finalHeapUsedBytes\": ").append(last.heapUsedBytes)
+                .append(", \"baselineThreads\": ").append(baselineThreads)
+                .append(", \"maxThreads\": ").append(maxThreads)
+                .append(", \"finalThreads\": ").append(finalThreads).append("},\n");
+
+        json.append("  \"commands\": {");
+        List<String> names = new ArrayList<>(commandCounts.keySet());
+        Collections.sort(names);
+        for (int i = 0; i < names.size(); i++) {
+            json.append(i > 0 ? ", " : "").append('"').append(names.get(i)).append("\": ")
+                    .append(commandCounts.get(names.get(i)));
+        }
+        json.append("},\n");
+
+        json.append("  \"latency\": {");
+        Map<?, ?> stages = (Map<?, ?>) latency.get("stages");
+        List<String> stageNames = new ArrayList<>();
+        for (Object key : stages.keySet()) {
+            stageNames.add((String) key);
+        }
+        Collections.sort(stageNames);
+        for (int i = 0; i < stageNames.size(); i++) {
+            Map<?, ?> stage = (Map<?, ?>) stages.get(stageNames.get(i));
+            json.append(i > 0 ? ",\n    " : "\n    ").append('"').append(stageNames.get(i)).append("\": {")
+                    .append("\"p50Us\": ").append(stage.get("p50Us"))
+                    .append(", \"p95Us\": ").append(stage.get("p95Us"))
+                    .append(", \"p99Us\": ").append(stage.get("p99Us"))
+                    .append(", \"maxUs\": ").append(stage.get("maxUs")).append('}');
+        }
+        json.append("\n  },\n");
+
+        json.append("  \"samples\": [");
+        for (int i = 0; i < samples.size(); i++) {
+            Sample s = samples.get(i);
+            json.append(i > 0 ? ",\n    " : "\n    ")
+                    .append("{\"elapsedMs\": ").append(s.elapsedMs)
+                    .append(", \"produced\": ").append(s.produced)
+                    .append(", \"dropped\": ").append(s.dropped)
+                    .append(", \"delivered\": ").append(s.delivered)
+                    .append(", \"deliveredPerSecond\": ").append(String.format("%.1f", s.deliveredPerSecond))
+                    .append(", \"heapUsedBytes\": ").append(s.heapUsedBytes)
+                    .append(", \"threads\": ").append(s.threads)
+                    .append(", \"drainRatio\": ").append(String.format("%.3f", s.drainRatio))
+                    .append(", \"maxMainBacklog\": ").append(s.maxMainBacklog)
+                    .append(", \"maxReaderBacklog\": ").append(s.maxReaderBacklog)
+                    .append(", \"uniqueTags\": ").append(s.uniqueTags).append('}');
+        }
+        json.append("\n  ]\n}\n");
+
+        try (Writer writer = new FileWriter(report)) {
+            writer.write(json.toString());
+        }
+        System.out.println("Soak report: " + report.getAbsolutePath());
+    }
+}
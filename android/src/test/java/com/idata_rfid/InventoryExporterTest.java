@@ -0,0 +1,124 @@
+package com.idata_rfid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class InventoryExporterTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void csvWritesSelectedFieldsAndQuotes() throws Exception {
+        TagInventory inventory = new TagInventory();
+        inventory.record("E1", "T,1", -50, 100);
+        inventory.record("E1", "T,1", -45, 200);
+
+        File target = new File(temp.getRoot(), "out.csv");
+        int exported = new InventoryExporter(InventoryExporter.FORMAT_CSV,
+                Arrays.asList("epc", "tid", "readCount", "rssi"), false).export(inventory, target, null);
+
+        assertEquals(1, exported);
+        List<String> lines = readLines(new FileInputStream(target));
+        assertEquals("epc,tid,readCount,rssi", lines.get(0));
+        assertEquals("E1,\"T,1\",2,-45", lines.get(1));
+        assertFalse(new File(target.getPath() + ".part").exists());
+    }
+
+    @Test
+    public void gzipJsonRoundTripsLargeInventory() throws Exception {
+        TagInventory inventory = new TagInventory();
+        for (int i = 0; i < 20_000; i++) {
+            inventory.record(String.format("3034%020X", i), null, -60, i);
+        }
+
+        File target = new File(temp.getRoot(), "out.json.gz");
+        List<int[]> progress = new ArrayList<>();
+        int exported = new InventoryExporter(InventoryExporter.FORMAT_JSON, null, true)
+                .export(inventory, target, (done, total) -> progress.add(new int[]{done, total}));
+
+        assertEquals(20_000, exported);
+        List<String> lines = readLines(new GZIPInputStream(new FileInputStream(target)));
+        assertEquals("[", lines.get(0));
+        assertEquals("]", lines.get(lines.size() - 1));
+        assertEquals(20_000 + 2, lines.size());
+        assertTrue(lines.get(1).contains("\"tid\":null"));
+
+        int[] last = progress.get(progress.size() - 1);
+        assertEquals(20_000, last[0]);
+        assertEquals(20_000, last[1]);
+    }
+
+    @Test
+    public void failedExportRemovesPartialFile() throws Exception {
+        TagInventory inventory = new TagInventory();
+        for (int i = 0; i < 10_000; i++) {
+            inventory.record(String.format("3034%020X", i), null, -60, i);
+        }
+
+        File target = new File(temp.getRoot(), "failed.csv.gz");
+        try {
+            new InventoryExporter(InventoryExporter.FORMAT_CSV, null, true)
+                    .export(inventory, target, (done, total) -> {
+                        throw new IllegalStateException("disk full");
+                    });
+            fail("Export should have failed");
+        } catch (IllegalStateException expected) {
+            assertEquals("disk full", expected.getMessage());
+        }
+
+        assertFalse(target.exists());
+        assertFalse(new File(target.getPath() + ".part").exists());
+    }
+
+    @Test
+    public void failedMoveRemovesPartialFile() throws Exception {
+        TagInventory inventory = new TagInventory();
+        inventory.record("E1", null, -50, 100);
+
+        // A non-empty directory in the way makes the final rename fail after a complete write
+        File target = temp.newFolder("blocked.csv");
+        assertTrue(new File(target, "keep").createNewFile());
+        try {
+            new InventoryExporter(InventoryExporter.FORMAT_CSV, null, false).export(inventory, target, null);
+            fail("Export should have failed");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Cannot move export"));
+        }
+
+        assertFalse(new File(target.getPath() + ".part").exists());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFieldIsRejected() {
+        new InventoryExporter(InventoryExporter.FORMAT_CSV, Arrays.asList("epc", "gtin"), false);
+    }
+
+    private static List<String> readLines(InputStream in) throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,253 @@
+package com.idata_rfid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/*
+ * Round-trip and crash-recovery checks for the inventory journal, plus a
+ * write throughput / recovery time benchmark over 100k distinct tags and a
+ * long-session benchmark of many checkpoint cycles over a small read field.
+ *
+ * Run with `./gradlew testDebugUnitTest` from `example/android/`. The
+ * benchmarks are skipped unless `-Dbench.enabled=true` is passed.
+ */
+public class InventoryJournalTest {
+    private static final int BENCHMARK_TAGS = 100_000;
+    private static final int BENCHMARK_ROUNDS = 3;
+    // ~1k tags in the read field, one checkpoint per cycle (2 s each in production)
+    private static final int SESSION_TAGS = 1000;
+    private static final int SESSION_CHECKPOINTS = 2000;
+    // Rollover threshold (8 MB) plus the 1 MB chunk mapped past it
+    private static final long SESSION_MAX_FILE_BYTES = 9L * 1024 * 1024;
+    // ~200 ms locally; generous so slow machines do not flake
+    private static final long SESSION_MAX_RECOVERY_MS = 2000;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void closedJournalReplaysCountsAndTids() throws Exception {
+        File file = new File(temp.getRoot(), "closed.journal");
+        TagInventory inventory = new TagInventory();
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0);
+
+        read(inventory, journal, "E200001", "TID1", -45, 100);
+        read(inventory, journal, "E200002", null, -60, 110);
+        read(inventory, journal, "E200001", "TID1", -40, 120);
+        journal.close();
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.Recovery recovery = InventoryJournal.recover(file, restored);
+
+        assertNotNull(recovery);
+        assertFalse(recovery.truncatedTail);
+        assertEquals(2, restored.uniqueCount());
+        assertEquals(3, restored.totalReads());
+        assertEquals(2, restored.get("E200001").readCount);
+        assertEquals(-40, restored.get("E200001").rssi);
+        assertEquals(120, restored.get("E200001").lastSeen);
+        assertEquals("TID1", restored.get("E200001").tid);
+        assertEquals(file.length(), recovery.endOffset);
+    }
+
+    @Test
+    public void unclosedJournalKeepsFirstSightings() throws Exception {
+        File file = new File(temp.getRoot(), "killed.journal");
+        TagInventory inventory = new TagInventory();
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0);
+
+        for (int i = 0; i < 500; i++) {
+            read(inventory, journal, epc(i), null, -50, i);
+        }
+        // Simulate process death: the writer drains, nothing is closed or truncated
+        waitForRecords(journal, 500);
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.recover(file, restored);
+        assertEquals(500, restored.uniqueCount());
+
+        journal.close();
+    }
+
+    @Test
+    public void tornTailIsIgnoredAndOverwrittenOnAppend() throws Exception {
+        File file = new File(temp.getRoot(), "torn.journal");
+        TagInventory inventory = new TagInventory();
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0);
+        read(inventory, journal, "E1", null, -50, 1);
+        read(inventory, journal, "E2", null, -50, 2);
+        journal.close();
+
+        // Corrupt the last byte of the final checkpoint CRC
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.Recovery recovery = InventoryJournal.recover(file, restored);
+        assertTrue(recovery.truncatedTail);
+        assertEquals(2, restored.uniqueCount());
+
+        InventoryJournal resumed = InventoryJournal.open(file, restored, recovery.endOffset);
+        read(restored, resumed, "E3", null, -50, 3);
+        resumed.close();
+
+        TagInventory again = new TagInventory();
+        InventoryJournal.Recovery second = InventoryJournal.recover(file, again);
+        assertFalse(second.truncatedTail);
+        assertEquals(3, again.uniqueCount());
+    }
+
+    @Test
+    public void benchmarkHundredThousandTags() throws Exception {
+        assumeBenchmarks();
+        File file = new File(temp.getRoot(), "bench.journal");
+        TagInventory inventory = new TagInventory();
+        String[] epcs = new String[BENCHMARK_TAGS];
+        for (int i = 0; i < BENCHMARK_TAGS; i++) {
+            epcs[i] = epc(i);
+        }
+
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0);
+        long start = System.nanoTime();
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            for (int i = 0; i < BENCHMARK_TAGS; i++) {
+                read(inventory, journal, epcs[i], null, -50 - round, i);
+            }
+        }
+        long hotPathNs = System.nanoTime() - start;
+        journal.close();
+        long writeNs = System.nanoTime() - start;
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.Recovery recovery = InventoryJournal.recover(file, restored);
+
+        assertEquals(BENCHMARK_TAGS, restored.uniqueCount());
+        assertEquals((long) BENCHMARK_TAGS * BENCHMARK_ROUNDS, restored.totalReads());
+
+        long reads = (long) BENCHMARK_TAGS * BENCHMARK_ROUNDS;
+        System.out.printf("journal: %d reads, hot path %.0f ns/read, %.1f ms until durable, %d bytes%n",
+                reads, (double) hotPathNs / reads, writeNs / 1e6, file.length());
+        System.out.printf("journal: recovered %d tags in %d ms%n", restored.uniqueCount(), recovery.elapsedMs);
+    }
+
+    @Test
+    public void resumeCompactsToOneSnapshotPerTag() throws Exception {
+        File file = new File(temp.getRoot(), "resume.journal");
+        TagInventory inventory = new TagInventory();
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0, 1);
+        for (int cycle = 0; cycle < 50; cycle++) {
+            for (int i = 0; i < 100; i++) {
+                read(inventory, journal, epc(i), null, -50, cycle);
+            }
+            awaitCheckpoint(journal);
+        }
+        journal.close();
+        long before = file.length();
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.Recovery recovery = InventoryJournal.recover(file, restored);
+        InventoryJournal resumed = InventoryJournal.open(file, restored, recovery.endOffset);
+        assertEquals(1, resumed.getCompactions());
+        read(restored, resumed, epc(0), null, -40, 99);
+        read(restored, resumed, "E3", null, -50, 100);
+        resumed.close();
+
+        assertTrue(file.length() < before / 10);
+        assertFalse(new File(file.getPath() + InventoryJournal.COMPACT_SUFFIX).exists());
+
+        TagInventory again = new TagInventory();
+        InventoryJournal.Recovery second = InventoryJournal.recover(file, again);
+        assertFalse(second.truncatedTail);
+        assertEquals(101, again.uniqueCount());
+        assertEquals(100 * 50 + 2, again.totalReads());
+        assertEquals(51, again.get(epc(0)).readCount);
+        assertEquals(-40, again.get(epc(0)).rssi);
+    }
+
+    @Test
+    public void benchmarkLongSessionCheckpoints() throws Exception {
+        assumeBenchmarks();
+        File file = new File(temp.getRoot(), "session.journal");
+        TagInventory inventory = new TagInventory();
+        String[] epcs = new String[SESSION_TAGS];
+        for (int i = 0; i < SESSION_TAGS; i++) {
+            epcs[i] = epc(i);
+        }
+
+        InventoryJournal journal = InventoryJournal.open(file, inventory, 0, 1);
+        long maxSize = 0;
+        long start = System.nanoTime();
+        for (int cycle = 0; cycle < SESSION_CHECKPOINTS; cycle++) {
+            for (int i = 0; i < SESSION_TAGS; i++) {
+                read(inventory, journal, epcs[i], null, -50, cycle);
+            }
+            awaitCheckpoint(journal);
+            maxSize = Math.max(maxSize, file.length());
+        }
+        int compactions = journal.getCompactions();
+        journal.close();
+        long writeNs = System.nanoTime() - start;
+
+        TagInventory restored = new TagInventory();
+        InventoryJournal.Recovery recovery = InventoryJournal.recover(file, restored);
+
+        assertEquals(SESSION_TAGS, restored.uniqueCount());
+        assertEquals((long) SESSION_TAGS * SESSION_CHECKPOINTS, restored.totalReads());
+        assertTrue(compactions > 0);
+        // Without compaction every cycle appends an UPDATE per tag (~90 MB here)
+        assertTrue("Journal peaked at " + maxSize + " bytes", maxSize <= SESSION_MAX_FILE_BYTES);
+        assertTrue("Recovery took " + recovery.elapsedMs + " ms", recovery.elapsedMs <= SESSION_MAX_RECOVERY_MS);
+
+        System.out.printf("journal: %d checkpoints over %d tags in %.1f ms, %d compactions, "
+                        + "max file %d bytes, final %d bytes%n",
+                SESSION_CHECKPOINTS, SESSION_TAGS, writeNs / 1e6, compactions, maxSize, file.length());
+        System.out.printf("journal: recovered %d tags from %d records in %d ms%n", restored.uniqueCount(),
+                recovery.tagRecords + recovery.updateRecords, recovery.elapsedMs);
+    }
+
+    private static void assumeBenchmarks() {
+        assumeTrue("Benchmarks are opt-in: -Dbench.enabled=true", Boolean.getBoolean("bench.enabled"));
+    }
+
+    private static void read(TagInventory inventory, InventoryJournal journal, String epc, String tid,
+                             int rssi, long timestamp) {
+        TagInventory.TagRecord created = inventory.record(epc, tid, rssi, timestamp);
+        if (created != null) {
+            journal.append(created);
+        }
+    }
+
+    private static String epc(int i) {
+        return String.format("30340000%016X", i);
+    }
+
+    private static void awaitCheckpoint(InventoryJournal journal) throws InterruptedException {
+        // Two checkpoints guarantee one started after the reads above
+        int target = journal.getCheckpoints() + 2;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.getCheckpoints() < target && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void waitForRecords(InventoryJournal journal, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.getRecordsWritten() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
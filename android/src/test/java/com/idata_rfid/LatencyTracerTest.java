@@ -0,0 +1,109 @@
+package com.idata_rfid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LatencyTracerTest {
+
+    @Test
+    public void traceStampsEventAndRecordsEveryStage() throws Exception {
+        LatencyTracer tracer = new LatencyTracer();
+        Map<String, Object> tag = new HashMap<>();
+
+        LatencyTracer.ReadTrace trace = tracer.begin();
+        trace.read();
+        trace.parsed();
+        trace.enqueued(tag);
+        Thread.sleep(2);
+        trace.posted();
+        trace.delivered();
+
+        Map<?, ?> stamps = (Map<?, ?>) tag.get("trace");
+        long read = (Long) stamps.get("readUs");
+        long posted = (Long) stamps.get("postUs");
+        assertTrue(posted - read >= 2000);
+        assertTrue(Math.abs(read - System.currentTimeMillis() * 1000) < 1_000_000);
+
+        Map<String, Object> snapshot = tracer.snapshot();
+        assertEquals(6, snapshot.size());
+        Map<?, ?> mainQueue = (Map<?, ?>) snapshot.get(LatencyTracer.STAGE_MAIN_QUEUE);
+        assertEquals(1L, mainQueue.get("count"));
+        assertTrue((Long) mainQueue.get("p50Us") >= 2000);
+    }
+
+    @Test
+    public void percentilesUseMostRecentWindow() {
+        LatencyTracer tracer = new LatencyTracer();
+        for (int i = 1; i <= 100; i++) {
+            LatencyTracer.ReadTrace trace = tracer.begin();
+            trace.read();
+            trace.parsed();
+            trace.enqueued(new HashMap<>());
+            trace.posted();
+            trace.delivered();
+        }
+
+        Map<?, ?> total = (Map<?, ?>) tracer.snapshot().get(LatencyTracer.STAGE_TOTAL);
+        assertEquals(100L, total.get("count"));
+        assertEquals(100, total.get("window"));
+        assertTrue((Long) total.get("p50Us") <= (Long) total.get("p99Us"));
+
+        tracer.clear();
+        total = (Map<?, ?>) tracer.snapshot().get(LatencyTracer.STAGE_TOTAL);
+        assertEquals(0L, total.get("count"));
+        assertEquals(0L, total.get("p99Us"));
+    }
+
+    @Test
+    public void clearReanchorsAfterMonotonicClockFallsBehind() {
+        AtomicLong wallMillis = new AtomicLong(1_700_000_000_000L);
+        AtomicLong monoNanos = new AtomicLong(1_000_000_000L);
+        LatencyTracer tracer = new LatencyTracer(wallMillis::get, monoNanos::get);
+
+        // Device sleeps for an hour: wall clock advances, monotonic clock does not
+        wallMillis.addAndGet(3_600_000L);
+        monoNanos.addAndGet(1_000_000L);
+
+        Map<String, Object> tag = new HashMap<>();
+        traceOne(tracer, tag);
+        assertTrue(wallMillis.get() * 1000 - readUs(tag) > 3_500_000_000L);
+
+        tracer.clear();
+        traceOne(tracer, tag);
+        assertEquals(wallMillis.get() * 1000, readUs(tag));
+    }
+
+    @Test
+    public void beginReanchorsPeriodically() {
+        AtomicLong wallMillis = new AtomicLong(1_700_000_000_000L);
+        AtomicLong monoNanos = new AtomicLong(1_000_000_000L);
+        LatencyTracer tracer = new LatencyTracer(wallMillis::get, monoNanos::get);
+
+        // NTP steps the wall clock forward 2 s, then 10 s pass on both clocks
+        wallMillis.addAndGet(12_000L);
+        monoNanos.addAndGet(10_000_000_000L);
+
+        Map<String, Object> tag = new HashMap<>();
+        traceOne(tracer, tag);
+        assertEquals(wallMillis.get() * 1000, readUs(tag));
+    }
+
+    private static void traceOne(LatencyTracer tracer, Map<String, Object> tag) {
+        LatencyTracer.ReadTrace trace = tracer.begin();
+        trace.read();
+        trace.parsed();
+        trace.enqueued(tag);
+        trace.posted();
+        trace.delivered();
+    }
+
+    private static long readUs(Map<String, Object> tag) {
+        return (Long) ((Map<?, ?>) tag.get("trace")).get("readUs");
+    }
+}
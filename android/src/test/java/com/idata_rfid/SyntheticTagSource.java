@@ -0,0 +1,133 @@
+package com.idata_rfid;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulated reader buffer producing bursty reads of a fixed pool of EPCs.
+ *
+ * A producer thread alternates bursts at the peak rate with idle gaps, but
+ * only while inventory is running, and drops reads once the bounded buffer is
+ * full, like the module's own FIFO. Every EPC enters the field once, in order,
+ * before reads pick from the whole pool at random, so the pool is saturated
+ * after epcCount reads. {@link #readTagFromBuffer()} has the vendor SDK
+ * contract: {tid, epc, rssiHex}, or null when the buffer is empty.
+ */
+final class SyntheticTagSource {
+    private static final int BUFFER_CAPACITY = 8192;
+    // SGTIN-96, filter 3, partition 5, GTIN 80614141123458; low 36 bits carry the serial
+    private static final String SGTIN_PREFIX = "3074257BF7194E4";
+    private static final String RAW_PREFIX = "E28011700000020F";
+
+    private final String[] epcs;
+    private final int peakRate;
+    private final Random random;
+    private final ArrayBlockingQueue<String[]> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+
+    private final AtomicLong produced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    private int nextNew;
+
+    private volatile boolean running;
+    private volatile boolean closed;
+    private final Thread producer;
+
+    SyntheticTagSource(int epcCount, int peakRate, long seed) {
+        this.peakRate = peakRate;
+        this.random = new Random(seed);
+        this.epcs = new String[epcCount];
+        for (int i = 0; i < epcCount; i++) {
+            // Mix GS1 encoded and raw EPCs so the decoder sees both
+            epcs[i] = i % 4 == 3
+                    ? RAW_PREFIX + String.format("%08X", i)
+                    : SGTIN_PREFIX + String.format("%09X", i);
+        }
+
+        producer = new Thread(this::produce, "SyntheticTagSource");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Mirrors UHFManager.startInventoryTag
+     */
+    boolean start() {
+        running = true;
+        return true;
+    }
+
+    /**
+     * Mirrors UHFManager.stopInventory; unread tags stay buffered
+     */
+    boolean stop() {
+        running = false;
+        return true;
+    }
+
+    String[] readTagFromBuffer() {
+        String[] tag = buffer.poll();
+        if (tag != null) {
+            consumed.incrementAndGet();
+        }
+        return tag;
+    }
+
+    long produced() {
+        return produced.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    long consumed() {
+        return consumed.get();
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    void close() throws InterruptedException {
+        closed = true;
+        producer.interrupt();
+        producer.join(1000);
+    }
+
+    private void produce() {
+        try {
+            while (!closed) {
+                // Burst: a pallet passing the door
+                long burstEnd = System.currentTimeMillis() + 200 + random.nextInt(1800);
+                int burstRate = peakRate / 4 + random.nextInt(peakRate - peakRate / 4 + 1);
+                while (System.currentTimeMillis() < burstEnd && !closed) {
+                    int perTick = Math.max(1, burstRate / 100);
+                    for (int i = 0; i < perTick && running; i++) {
+                        offer();
+                    }
+                    Thread.sleep(10);
+                }
+
+                // Gap between pallets
+                Thread.sleep(100 + random.nextInt(900));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer() {
+        String epc = nextNew < epcs.length ? epcs[nextNew++] : epcs[random.nextInt(epcs.length)];
+        int hb = 0xFD + random.nextInt(2);
+        int lb = random.nextInt(256);
+        String[] tag = {null, epc, String.format("%02X%02X", hb, lb)};
+
+        produced.incrementAndGet();
+        if (!buffer.offer(tag)) {
+            dropped.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+enum ExportFormat {
+  csv('csv'),
+  json('json');
+
+  final String value;
+  const ExportFormat(this.value);
+}
+
+/// Columns available to `exportInventory`
+enum ExportField {
+  epc('epc'),
+  tid('tid'),
+  rssi('rssi'),
+  readCount('readCount'),
+  firstSeen('firstSeen'),
+  lastSeen('lastSeen');
+
+  final String value;
+  const ExportField(this.value);
+}
@@ -34,3 +34,8 @@ class UhfConfigException extends UhfException {
 class UhfStateException extends UhfException {
   UhfStateException(String message) : super('STATE_ERROR', message);
 }
+
+/// Thrown when a native inventory export fails
+class UhfExportException extends UhfException {
+  UhfExportException(String message) : super('EXPORT_ERROR', message);
+}
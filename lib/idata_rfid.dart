@@ -1,4 +1,5 @@
 import 'package:flutter/services.dart';
+import 'package:idata_rfid/enums/export_format.dart';
 import 'package:idata_rfid/enums/frequency_mode.dart';
 import 'package:idata_rfid/enums/inventory_mode.dart';
 import 'package:idata_rfid/enums/module_type.dart';
@@ -6,8 +7,13 @@ import 'package:idata_rfid/enums/read_mode.dart';
 import 'package:idata_rfid/enums/session_mode.dart';
 import 'package:idata_rfid/exception/uhf_exception.dart';
 import 'package:idata_rfid/idata_rfid_platform_interface.dart';
+import 'package:idata_rfid/models/epc_group_counts.dart';
+import 'package:idata_rfid/models/export_progress.dart';
+import 'package:idata_rfid/models/inventory_session.dart';
+import 'package:idata_rfid/models/read_latency_stats.dart';
 import 'package:idata_rfid/models/tag_data.dart';
 
+export 'enums/export_format.dart';
 export 'enums/frequency_mode.dart';
 export 'enums/inventory_mode.dart';
 export 'enums/module_type.dart';
@@ -15,6 +21,12 @@ export 'enums/read_mode.dart';
 export 'enums/session_mode.dart';
 export 'idata_rfid_method_channel.dart';
 export 'idata_rfid_platform_interface.dart';
+export 'models/epc_group_counts.dart';
+export 'models/export_progress.dart';
+export 'models/gs1_epc.dart';
+export 'models/inventory_session.dart';
+export 'models/read_latency_stats.dart';
+export 'models/read_trace.dart';
 export 'models/tag_data.dart';
 export 'models/uhf_response.dart';
 
@@ -89,6 +101,9 @@ class IdataRfid {
 
   /// Start tag inventory scanning
   ///
+  /// Tags are delivered on [tagStream]. The native inventory is not reset;
+  /// it only grows while tracked (see [setInventoryTracking]).
+  ///
   /// [readMode] The read mode (0: EPC only, 1: EPC+TID, 2: EPC+User, etc.)
   ///
   /// Throws [UhfNotInitializedException] if not initialized
@@ -212,7 +227,9 @@ class IdataRfid {
   /// Stream of tag data during inventory
   ///
   /// The stream emits [TagData] objects containing EPC, TID (if available),
-  /// RSSI, and timestamp.
+  /// RSSI, and timestamp. Listening alone does not keep tags in the native
+  /// inventory; see [setInventoryTracking]. If the journal of an open session
+  /// fails, the stream emits a [UhfException] with code `JOURNAL_ERROR` once.
   ///
   /// Example:
   /// ```dart
@@ -226,6 +243,168 @@ class IdataRfid {
     return _platform.tagStream;
   }
 
+  /// Open a journaled inventory session, replaying its journal if one exists
+  ///
+  /// The native inventory is cleared and rebuilt from the journal of
+  /// [sessionId] in a single sequential scan. While the session is open every
+  /// newly seen tag, plus periodic read count checkpoints, is appended to the
+  /// journal in the background, so a count survives the app being killed.
+  /// Call again with the same id after a restart to pick up where it stopped.
+  ///
+  /// If the journal cannot be written (e.g. the disk is full), [tagStream]
+  /// reports `JOURNAL_ERROR`, new tags are no longer journaled and
+  /// [startInventory] fails until the session is closed.
+  ///
+  /// [sessionId] may contain letters, digits, `_` and `-` (max 64 chars)
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfException] if inventory is running or the journal fails
+  Future<InventorySession> resumeSession(String sessionId) async {
+    _checkInitialized();
+    return _platform.resumeSession(sessionId);
+  }
+
+  /// Close the journaled session and clear the native inventory
+  ///
+  /// [discard] Delete the journal file instead of keeping it for later resume
+  ///
+  /// Returns false if no session was open
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfException] if the journal fails
+  Future<bool> closeSession({bool discard = false}) async {
+    _checkInitialized();
+    return _platform.closeSession(discard: discard);
+  }
+
+  /// Keep every read tag in the native inventory
+  ///
+  /// The native inventory behind [getInventory], [exportInventory] and
+  /// [epcGroupCounts] is only filled while tracking is enabled, a session is
+  /// open ([resumeSession]) or EPC decoding is enabled ([setEpcDecoding]).
+  /// It holds one entry per unique EPC until [clearInventory] or
+  /// [closeSession]; [startInventory] does not reset it. Disabling tracking
+  /// keeps the tags already collected.
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfInventoryException] if operation fails
+  Future<void> setInventoryTracking(bool enabled) async {
+    _checkInitialized();
+    await _platform.setInventoryTracking(enabled);
+  }
+
+  /// Get the deduplicated native inventory
+  ///
+  /// Each [TagData] carries the aggregated [TagData.readCount], the latest
+  /// RSSI and both first and last seen times. Empty unless tags were read
+  /// while the inventory was tracked (see [setInventoryTracking]).
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfInventoryException] if operation fails
+  Future<List<TagData>> getInventory() async {
+    _checkInitialized();
+    return _platform.getInventory();
+  }
+
+  /// Clear the native inventory (not allowed while a session is open)
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfInventoryException] if operation fails
+  Future<void> clearInventory() async {
+    _checkInitialized();
+    await _platform.clearInventory();
+  }
+
+  /// Export the native inventory straight to a file
+  ///
+  /// Tags are streamed from the native inventory to disk without passing
+  /// through Dart, using constant memory regardless of inventory size.
+  /// Only tracked tags are exported (see [setInventoryTracking]).
+  /// Listen to [exportProgress] for progress updates.
+  ///
+  /// [path] Target file; relative paths resolve against the app files dir
+  /// [format] CSV (with header row) or a JSON array
+  /// [fields] Columns to write, in order (defaults to all)
+  /// [gzip] Gzip-compress the output
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfExportException] if the export fails
+  Future<ExportResult> exportInventory(
+    String path, {
+    ExportFormat format = ExportFormat.csv,
+    List<ExportField>? fields,
+    bool gzip = false,
+  }) async {
+    _checkInitialized();
+    return _platform.exportInventory(
+      path,
+      format: format,
+      fields: fields,
+      gzip: gzip,
+    );
+  }
+
+  /// Stream of progress events for running exports
+  Stream<ExportProgress> get exportProgress {
+    _checkInitialized();
+    return _platform.exportProgress;
+  }
+
+  /// Enable or disable native GS1 EPC decoding
+  ///
+  /// When enabled, SGTIN-96, SSCC-96 and GRAI-96 EPCs are decoded once per
+  /// unique tag and attached to [TagData.gs1] in [tagStream] and
+  /// [getInventory], and [epcGroupCounts] starts counting tags already in
+  /// the native inventory.
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfConfigException] if operation fails
+  Future<void> setEpcDecoding(bool enabled) async {
+    _checkInitialized();
+    await _platform.setEpcDecoding(enabled);
+  }
+
+  /// Live unique tag counts by GTIN and by company prefix
+  ///
+  /// Updated incrementally (at most 4 times a second) from the native
+  /// inventory while EPC decoding is enabled.
+  ///
+  /// Example:
+  /// ```dart
+  /// await uhf.setEpcDecoding(true);
+  /// uhf.epcGroupCounts.listen((counts) {
+  ///   print('GTINs: ${counts.byGtin}');
+  /// });
+  /// ```
+  Stream<EpcGroupCounts> get epcGroupCounts {
+    _checkInitialized();
+    return _platform.epcGroupCounts;
+  }
+
+  /// Enable or disable read latency tracing
+  ///
+  /// While enabled, every tag in [tagStream] carries a [TagData.trace] with
+  /// timestamps of each pipeline stage, and per-stage latencies are recorded
+  /// for [getReadLatencyStats]. Enabling starts a fresh measurement window.
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfConfigException] if operation fails
+  Future<void> setReadTracing(bool enabled) async {
+    _checkInitialized();
+    await _platform.setReadTracing(enabled);
+  }
+
+  /// Get p50/p95/p99 latency per read pipeline stage
+  ///
+  /// Percentiles cover the most recent 4096 traced reads of each stage.
+  ///
+  /// Throws [UhfNotInitializedException] if not initialized
+  /// Throws [UhfException] if operation fails
+  Future<ReadLatencyStats> getReadLatencyStats() async {
+    _checkInitialized();
+    return _platform.getReadLatencyStats();
+  }
+
   /// Check if plugin is initialized
   void _checkInitialized() {
     if (!_initialized) {
@@ -1,17 +1,31 @@
 import 'package:flutter/services.dart';
 import 'package:idata_rfid/exception/uhf_exception.dart';
 
+import 'enums/export_format.dart';
 import 'enums/frequency_mode.dart';
 import 'enums/inventory_mode.dart';
 import 'enums/module_type.dart';
 import 'enums/read_mode.dart';
 import 'enums/session_mode.dart';
 import 'idata_rfid_platform_interface.dart';
+import 'models/epc_group_counts.dart';
+import 'models/export_progress.dart';
+import 'models/inventory_session.dart';
+import 'models/read_latency_stats.dart';
 import 'models/tag_data.dart';
 
 class MethodChannelIdataRfid extends IdataRfidPlatform {
   static const methodChannel = MethodChannel('com.idata_rfid/method');
   static const eventChannel = EventChannel('com.idata_rfid/tags');
+  static const exportEventChannel = EventChannel(
+    'com.idata_rfid/export_progress',
+  );
+  static const epcGroupsEventChannel = EventChannel(
+    'com.idata_rfid/epc_groups',
+  );
+
+  final _channelLatency = _LatencyWindow();
+  final _endToEndLatency = _LatencyWindow();
 
   @override
   Future<void> initialize(UhfModuleType moduleType) async {
@@ -177,14 +191,230 @@ class MethodChannelIdataRfid extends IdataRfidPlatform {
   @override
   Stream<TagData> get tagStream {
     return eventChannel.receiveBroadcastStream().map((data) {
+      final receivedAt = DateTime.now();
       try {
         if (data is Map) {
-          return TagData.fromMap(data);
+          final tag = TagData.fromMap(data, receivedAt: receivedAt);
+          final trace = tag.trace;
+          if (trace != null) {
+            _channelLatency.add(trace.channelLatency);
+            _endToEndLatency.add(trace.endToEndLatency);
+          }
+          return tag;
         }
         throw FormatException('Invalid tag data format');
       } catch (e) {
         throw UhfException('PARSE_ERROR', 'Failed to parse tag data: $e');
       }
+    }).handleError(
+      (Object e) {
+        // Native errors, e.g. JOURNAL_ERROR when the session journal fails
+        final error = e as PlatformException;
+        throw UhfException(error.code, error.message ?? 'Tag stream error', e);
+      },
+      test: (e) => e is PlatformException,
+    );
+  }
+
+  @override
+  Future<InventorySession> resumeSession(String sessionId) async {
+    try {
+      final summary = await methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'resumeSession',
+        {'sessionId': sessionId},
+      );
+      return InventorySession.fromMap(summary ?? const {});
+    } on PlatformException catch (e) {
+      throw UhfException(e.code, e.message ?? 'Resume session failed');
+    }
+  }
+
+  @override
+  Future<bool> closeSession({bool discard = false}) async {
+    try {
+      final closed = await methodChannel.invokeMethod<bool>('closeSession', {
+        'discard': discard,
+      });
+      return closed ?? false;
+    } on PlatformException catch (e) {
+      throw UhfException(e.code, e.message ?? 'Close session failed');
+    }
+  }
+
+  @override
+  Future<void> setInventoryTracking(bool enabled) async {
+    try {
+      await methodChannel.invokeMethod('setInventoryTracking', {
+        'enabled': enabled,
+      });
+    } on PlatformException catch (e) {
+      throw UhfInventoryException(e.message ?? 'Set inventory tracking failed');
+    }
+  }
+
+  @override
+  Future<List<TagData>> getInventory() async {
+    try {
+      final tags = await methodChannel.invokeListMethod<Map<dynamic, dynamic>>(
+        'getInventory',
+      );
+      return tags?.map(TagData.fromMap).toList() ?? [];
+    } on PlatformException catch (e) {
+      throw UhfInventoryException(e.message ?? 'Get inventory failed');
+    }
+  }
+
+  @override
+  Future<void> clearInventory() async {
+    try {
+      await methodChannel.invokeMethod('clearInventory');
+    } on PlatformException catch (e) {
+      throw UhfInventoryException(e.message ?? 'Clear inventory failed');
+    }
+  }
+
+  @override
+  Future<ExportResult> exportInventory(
+    String path, {
+    ExportFormat format = ExportFormat.csv,
+    List<ExportField>? fields,
+    bool gzip = false,
+  }) async {
+    try {
+      final result = await methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'exportInventory',
+        {
+          'path': path,
+          'format': format.value,
+          'fields': fields?.map((field) => field.value).toList(),
+          'gzip': gzip,
+        },
+      );
+      return ExportResult.fromMap(result ?? const {});
+    } on PlatformException catch (e) {
+      throw UhfExportException(e.message ?? 'Export inventory failed');
+    }
+  }
+
+  @override
+  Stream<ExportProgress> get exportProgress {
+    return exportEventChannel.receiveBroadcastStream().map((data) {
+      if (data is Map) {
+        return ExportProgress.fromMap(data);
+      }
+      throw UhfException('PARSE_ERROR', 'Invalid export progress format');
+    });
+  }
+
+  @override
+  Future<void> setEpcDecoding(bool enabled) async {
+    try {
+      await methodChannel.invokeMethod('setEpcDecoding', {'enabled': enabled});
+    } on PlatformException catch (e) {
+      throw UhfConfigException(e.message ?? 'Set EPC decoding failed');
+    }
+  }
+
+  @override
+  Stream<EpcGroupCounts> get epcGroupCounts {
+    // Native side sends a full snapshot first, then only changed groups
+    final byGtin = <String, int>{};
+    final byCompanyPrefix = <String, int>{};
+
+    return epcGroupsEventChannel.receiveBroadcastStream().map((data) {
+      if (data is! Map) {
+        throw UhfException('PARSE_ERROR', 'Invalid EPC group format');
+      }
+      if (data['reset'] == true) {
+        byGtin.clear();
+        byCompanyPrefix.clear();
+      }
+      byGtin.addAll(Map<String, int>.from(data['byGtin'] as Map? ?? const {}));
+      byCompanyPrefix.addAll(
+        Map<String, int>.from(data['byCompanyPrefix'] as Map? ?? const {}),
+      );
+      return EpcGroupCounts(
+        byGtin: Map.unmodifiable(byGtin),
+        byCompanyPrefix: Map.unmodifiable(byCompanyPrefix),
+        decodedTags: data['decodedTags'] as int? ?? 0,
+      );
     });
   }
+
+  @override
+  Future<void> setReadTracing(bool enabled) async {
+    try {
+      await methodChannel.invokeMethod('setReadTracing', {'enabled': enabled});
+      if (enabled) {
+        _channelLatency.clear();
+        _endToEndLatency.clear();
+      }
+    } on PlatformException catch (e) {
+      throw UhfConfigException(e.message ?? 'Set read tracing failed');
+    }
+  }
+
+  @override
+  Future<ReadLatencyStats> getReadLatencyStats() async {
+    try {
+      final stats = await methodChannel.invokeMethod<Map<dynamic, dynamic>>(
+        'getReadLatencyStats',
+      );
+      final nativeStages = stats?['stages'] as Map<dynamic, dynamic>? ?? {};
+      return ReadLatencyStats(
+        enabled: stats?['enabled'] as bool? ?? false,
+        stages: {
+          for (final entry in nativeStages.entries)
+            entry.key as String: LatencyPercentiles.fromMap(
+              entry.value as Map<dynamic, dynamic>,
+            ),
+          'channel': _channelLatency.summarize(),
+          'endToEnd': _endToEndLatency.summarize(),
+        },
+      );
+    } on PlatformException catch (e) {
+      throw UhfException(e.code, e.message ?? 'Get read latency stats failed');
+    }
+  }
+}
+
+/// Ring of the most recent Dart-side latency samples, in microseconds
+class _LatencyWindow {
+  static const _size = 4096;
+
+  final _samples = List<int>.filled(_size, 0);
+  int _next = 0;
+  int _count = 0;
+
+  void add(Duration latency) {
+    _samples[_next] = latency.inMicroseconds;
+    _next = (_next + 1) % _size;
+    _count++;
+  }
+
+  void clear() {
+    _next = 0;
+    _count = 0;
+  }
+
+  LatencyPercentiles summarize() {
+    final window = _count < _size ? _count : _size;
+    final sorted = _samples.sublist(0, window)..sort();
+
+    // Nearest-rank percentile
+    Duration at(int percentile) {
+      if (sorted.isEmpty) return Duration.zero;
+      final rank = (percentile / 100 * sorted.length).ceil();
+      return Duration(microseconds: sorted[(rank < 1 ? 1 : rank) - 1]);
+    }
+
+    return LatencyPercentiles(
+      count: _count,
+      window: window,
+      p50: at(50),
+      p95: at(95),
+      p99: at(99),
+      max: sorted.isEmpty ? Duration.zero : Duration(microseconds: sorted.last),
+    );
+  }
 }
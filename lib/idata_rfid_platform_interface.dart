@@ -1,11 +1,16 @@
 import 'package:idata_rfid/idata_rfid_method_channel.dart';
 import 'package:plugin_platform_interface/plugin_platform_interface.dart';
 
+import 'enums/export_format.dart';
 import 'enums/frequency_mode.dart';
 import 'enums/inventory_mode.dart';
 import 'enums/module_type.dart';
 import 'enums/read_mode.dart';
 import 'enums/session_mode.dart';
+import 'models/epc_group_counts.dart';
+import 'models/export_progress.dart';
+import 'models/inventory_session.dart';
+import 'models/read_latency_stats.dart';
 import 'models/tag_data.dart';
 
 abstract class IdataRfidPlatform extends PlatformInterface {
@@ -37,4 +42,20 @@ abstract class IdataRfidPlatform extends PlatformInterface {
   Future<String?> getModuleTemp();
   Future<void> setReadMode(ReadMode mode, {int startAddr = 0, int wordCnt = 0});
   Stream<TagData> get tagStream;
+  Future<InventorySession> resumeSession(String sessionId);
+  Future<bool> closeSession({bool discard = false});
+  Future<void> setInventoryTracking(bool enabled);
+  Future<List<TagData>> getInventory();
+  Future<void> clearInventory();
+  Future<ExportResult> exportInventory(
+    String path, {
+    ExportFormat format = ExportFormat.csv,
+    List<ExportField>? fields,
+    bool gzip = false,
+  });
+  Stream<ExportProgress> get exportProgress;
+  Future<void> setEpcDecoding(bool enabled);
+  Stream<EpcGroupCounts> get epcGroupCounts;
+  Future<void> setReadTracing(bool enabled);
+  Future<ReadLatencyStats> getReadLatencyStats();
 }
@@ -0,0 +1,21 @@
+/// Unique tag counts grouped by GTIN and by GS1 company prefix
+///
+/// Maintained natively and updated incrementally while EPC decoding is on.
+class EpcGroupCounts {
+  final Map<String, int> byGtin;
+  final Map<String, int> byCompanyPrefix;
+
+  /// Unique tags with a recognised GS1 encoding
+  final int decodedTags;
+
+  EpcGroupCounts({
+    required this.byGtin,
+    required this.byCompanyPrefix,
+    required this.decodedTags,
+  });
+
+  @override
+  String toString() =>
+      'EpcGroupCounts(gtins: ${byGtin.length}, '
+      'companyPrefixes: ${byCompanyPrefix.length}, decodedTags: $decodedTags)';
+}
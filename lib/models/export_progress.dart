@@ -0,0 +1,60 @@
+/// Progress of a native inventory export
+class ExportProgress {
+  final String path;
+  final int exported;
+  final int total;
+
+  ExportProgress({
+    required this.path,
+    required this.exported,
+    required this.total,
+  });
+
+  /// Parse ExportProgress from platform event
+  factory ExportProgress.fromMap(Map<dynamic, dynamic> map) {
+    return ExportProgress(
+      path: map['path'] as String? ?? '',
+      exported: map['exported'] as int? ?? 0,
+      total: map['total'] as int? ?? 0,
+    );
+  }
+
+  /// Fraction done, between 0 and 1
+  double get fraction => total > 0 ? exported / total : 1;
+
+  bool get isDone => exported >= total;
+
+  @override
+  String toString() => 'ExportProgress(path: $path, $exported/$total)';
+}
+
+/// Result of a completed native inventory export
+class ExportResult {
+  final String path;
+  final int records;
+
+  /// File size on disk (compressed size for gzip output)
+  final int bytes;
+  final Duration elapsed;
+
+  ExportResult({
+    required this.path,
+    required this.records,
+    required this.bytes,
+    required this.elapsed,
+  });
+
+  /// Parse ExportResult from platform response
+  factory ExportResult.fromMap(Map<dynamic, dynamic> map) {
+    return ExportResult(
+      path: map['path'] as String? ?? '',
+      records: map['records'] as int? ?? 0,
+      bytes: map['bytes'] as int? ?? 0,
+      elapsed: Duration(milliseconds: map['elapsedMs'] as int? ?? 0),
+    );
+  }
+
+  @override
+  String toString() =>
+      'ExportResult(path: $path, records: $records, bytes: $bytes)';
+}
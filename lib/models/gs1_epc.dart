@@ -0,0 +1,56 @@
+/// GS1 identity decoded natively from an EPC (SGTIN-96, SSCC-96, GRAI-96)
+class Gs1Epc {
+  /// Encoding scheme, e.g. `sgtin-96`
+  final String scheme;
+  final int filter;
+  final String companyPrefix;
+
+  /// GTIN-14 (SGTIN only)
+  final String? gtin;
+
+  /// SSCC-18 (SSCC only)
+  final String? sscc;
+
+  /// GRAI without serial (GRAI only)
+  final String? grai;
+  final String? serial;
+
+  Gs1Epc({
+    required this.scheme,
+    required this.filter,
+    required this.companyPrefix,
+    this.gtin,
+    this.sscc,
+    this.grai,
+    this.serial,
+  });
+
+  /// Parse Gs1Epc from platform response
+  factory Gs1Epc.fromMap(Map<dynamic, dynamic> map) {
+    return Gs1Epc(
+      scheme: map['scheme'] as String? ?? '',
+      filter: map['filter'] as int? ?? 0,
+      companyPrefix: map['companyPrefix'] as String? ?? '',
+      gtin: map['gtin'] as String?,
+      sscc: map['sscc'] as String?,
+      grai: map['grai'] as String?,
+      serial: map['serial'] as String?,
+    );
+  }
+
+  /// Convert to JSON map
+  Map<String, dynamic> toMap() => {
+    'scheme': scheme,
+    'filter': filter,
+    'companyPrefix': companyPrefix,
+    if (gtin != null) 'gtin': gtin,
+    if (sscc != null) 'sscc': sscc,
+    if (grai != null) 'grai': grai,
+    if (serial != null) 'serial': serial,
+  };
+
+  @override
+  String toString() =>
+      'Gs1Epc(scheme: $scheme, companyPrefix: $companyPrefix, '
+      'gtin: $gtin, serial: $serial)';
+}
@@ -0,0 +1,52 @@
+/// Summary of a journaled inventory session returned by `resumeSession`
+class InventorySession {
+  final String sessionId;
+
+  /// Whether an existing journal was replayed (false for a new session)
+  final bool resumed;
+  final int uniqueTags;
+  final int totalReads;
+
+  /// Number of journal records replayed
+  final int recoveredRecords;
+
+  /// Time of the last aggregate checkpoint found in the journal
+  final DateTime? lastCheckpoint;
+
+  /// Whether the journal ended in a partially written record (process death)
+  final bool truncatedTail;
+  final Duration recoveryTime;
+
+  InventorySession({
+    required this.sessionId,
+    required this.resumed,
+    required this.uniqueTags,
+    required this.totalReads,
+    this.recoveredRecords = 0,
+    this.lastCheckpoint,
+    this.truncatedTail = false,
+    this.recoveryTime = Duration.zero,
+  });
+
+  /// Parse InventorySession from platform response
+  factory InventorySession.fromMap(Map<dynamic, dynamic> map) {
+    final lastCheckpoint = map['lastCheckpoint'] as int?;
+    return InventorySession(
+      sessionId: map['sessionId'] as String? ?? '',
+      resumed: map['resumed'] as bool? ?? false,
+      uniqueTags: map['uniqueTags'] as int? ?? 0,
+      totalReads: map['totalReads'] as int? ?? 0,
+      recoveredRecords: map['recoveredRecords'] as int? ?? 0,
+      lastCheckpoint: lastCheckpoint != null && lastCheckpoint > 0
+          ? DateTime.fromMillisecondsSinceEpoch(lastCheckpoint)
+          : null,
+      truncatedTail: map['truncatedTail'] as bool? ?? false,
+      recoveryTime: Duration(milliseconds: map['recoveryMs'] as int? ?? 0),
+    );
+  }
+
+  @override
+  String toString() =>
+      'InventorySession(sessionId: $sessionId, resumed: $resumed, '
+      'uniqueTags: $uniqueTags, totalReads: $totalReads)';
+}
@@ -0,0 +1,54 @@
+/// Latency percentiles of one read pipeline stage over the recent window
+class LatencyPercentiles {
+  /// Samples recorded since tracing was enabled
+  final int count;
+
+  /// Most recent samples the percentiles are computed from
+  final int window;
+  final Duration p50;
+  final Duration p95;
+  final Duration p99;
+  final Duration max;
+
+  LatencyPercentiles({
+    required this.count,
+    required this.window,
+    required this.p50,
+    required this.p95,
+    required this.p99,
+    required this.max,
+  });
+
+  /// Parse LatencyPercentiles from platform response
+  factory LatencyPercentiles.fromMap(Map<dynamic, dynamic> map) {
+    return LatencyPercentiles(
+      count: map['count'] as int? ?? 0,
+      window: map['window'] as int? ?? 0,
+      p50: Duration(microseconds: map['p50Us'] as int? ?? 0),
+      p95: Duration(microseconds: map['p95Us'] as int? ?? 0),
+      p99: Duration(microseconds: map['p99Us'] as int? ?? 0),
+      max: Duration(microseconds: map['maxUs'] as int? ?? 0),
+    );
+  }
+
+  @override
+  String toString() =>
+      'p50: ${p50.inMicroseconds}us, p95: ${p95.inMicroseconds}us, '
+      'p99: ${p99.inMicroseconds}us (n=$window)';
+}
+
+/// Read latency diagnostics per pipeline stage
+///
+/// Native stages: `bufferRead`, `parse`, `enqueue`, `mainQueue`, `deliver`
+/// and `total` (buffer read to `eventSink.success` returning). Dart stages:
+/// `channel` (main-thread post to Dart listener) and `endToEnd` (buffer read
+/// to Dart listener).
+class ReadLatencyStats {
+  final bool enabled;
+  final Map<String, LatencyPercentiles> stages;
+
+  ReadLatencyStats({required this.enabled, required this.stages});
+
+  @override
+  String toString() => 'ReadLatencyStats(enabled: $enabled, stages: $stages)';
+}
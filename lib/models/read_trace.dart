@@ -0,0 +1,59 @@
+/// Per-stage timestamps of a traced read, from reader buffer to Dart
+///
+/// Native stamps come from a monotonic clock converted to wall time, so they
+/// can be compared with [receivedAt] taken by the Dart listener. The wall-time
+/// anchor is retaken when tracing is enabled and every 5 seconds while it runs,
+/// so sleep and clock adjustments do not accumulate; all stamps of one trace
+/// share the anchor that was current when its read started.
+class ReadTrace {
+  /// Reader buffer returned the tag
+  final DateTime readAt;
+  final DateTime parsedAt;
+
+  /// Tag posted to the main thread
+  final DateTime enqueuedAt;
+
+  /// Main thread picked the tag up, right before the event was sent
+  final DateTime? postedAt;
+
+  /// Event arrived in the Dart listener
+  final DateTime receivedAt;
+
+  ReadTrace({
+    required this.readAt,
+    required this.parsedAt,
+    required this.enqueuedAt,
+    this.postedAt,
+    required this.receivedAt,
+  });
+
+  /// Parse ReadTrace from the `trace` entry of a tag event
+  factory ReadTrace.fromMap(Map<dynamic, dynamic> map, DateTime receivedAt) {
+    DateTime? stamp(String key) {
+      final micros = map[key] as int?;
+      return micros != null
+          ? DateTime.fromMicrosecondsSinceEpoch(micros)
+          : null;
+    }
+
+    return ReadTrace(
+      readAt: stamp('readUs') ?? receivedAt,
+      parsedAt: stamp('parseUs') ?? receivedAt,
+      enqueuedAt: stamp('enqueueUs') ?? receivedAt,
+      postedAt: stamp('postUs'),
+      receivedAt: receivedAt,
+    );
+  }
+
+  /// Time from main-thread post to the Dart listener
+  Duration get channelLatency =>
+      receivedAt.difference(postedAt ?? enqueuedAt);
+
+  /// Time from reader buffer to the Dart listener
+  Duration get endToEndLatency => receivedAt.difference(readAt);
+
+  @override
+  String toString() =>
+      'ReadTrace(endToEnd: ${endToEndLatency.inMicroseconds}us, '
+      'channel: ${channelLatency.inMicroseconds}us)';
+}
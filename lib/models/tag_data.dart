@@ -1,18 +1,42 @@
+import 'gs1_epc.dart';
+import 'read_trace.dart';
+
 class TagData {
   final String epc;
   final String? tid;
   final int rssi;
   final DateTime timestamp;
 
+  /// Number of reads aggregated into this entry (native inventory only)
+  final int readCount;
+
+  /// First time the tag was read (native inventory only)
+  final DateTime? firstSeen;
+
+  /// GS1 decode of [epc], present while EPC decoding is enabled
+  final Gs1Epc? gs1;
+
+  /// Pipeline timestamps, present while read tracing is enabled
+  final ReadTrace? trace;
+
   TagData({
     required this.epc,
     this.tid,
     required this.rssi,
     required this.timestamp,
+    this.readCount = 1,
+    this.firstSeen,
+    this.gs1,
+    this.trace,
   });
 
   /// Parse TagData from platform response
-  factory TagData.fromMap(Map<dynamic, dynamic> map) {
+  ///
+  /// [receivedAt] Time the event reached Dart, used for read tracing
+  factory TagData.fromMap(Map<dynamic, dynamic> map, {DateTime? receivedAt}) {
+    final firstSeen = map['firstSeen'] as int?;
+    final gs1 = map['gs1'] as Map<dynamic, dynamic>?;
+    final trace = map['trace'] as Map<dynamic, dynamic>?;
     return TagData(
       epc: map['epc'] as String? ?? '',
       tid: map['tid'] as String?,
@@ -20,6 +44,14 @@ class TagData {
       timestamp: DateTime.fromMillisecondsSinceEpoch(
         map['timestamp'] as int? ?? DateTime.now().millisecondsSinceEpoch,
       ),
+      readCount: map['readCount'] as int? ?? 1,
+      firstSeen: firstSeen != null
+          ? DateTime.fromMillisecondsSinceEpoch(firstSeen)
+          : null,
+      gs1: gs1 != null ? Gs1Epc.fromMap(gs1) : null,
+      trace: trace != null
+          ? ReadTrace.fromMap(trace, receivedAt ?? DateTime.now())
+          : null,
     );
   }
 
@@ -29,8 +61,12 @@ class TagData {
     'tid': tid,
     'rssi': rssi,
     'timestamp': timestamp.millisecondsSinceEpoch,
+    'readCount': readCount,
+    if (firstSeen != null) 'firstSeen': firstSeen!.millisecondsSinceEpoch,
+    if (gs1 != null) 'gs1': gs1!.toMap(),
   };
 
   @override
-  String toString() => 'TagData(epc: $epc, tid: $tid, rssi: $rssi)';
+  String toString() =>
+      'TagData(epc: $epc, tid: $tid, rssi: $rssi, readCount: $readCount)';
 }